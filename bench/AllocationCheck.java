@@ -0,0 +1,54 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Sprawdza budżet alokacji kroku symulacji: po rozgrzaniu pojedynczy krok
+ * {@link World#tick(TickInput)} nie może zaalokować ani jednego bajtu.
+ * Liczba bajtów jest odczytywana z {@code ThreadMXBean.getThreadAllocatedBytes}
+ * dla bieżącego wątku. Program kończy się kodem 1, jeśli budżet został przekroczony,
+ * dzięki czemu można go uruchamiać jako bramkę jakości po każdej zmianie.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true -cp out AllocationCheck
+ * </pre>
+ */
+public class AllocationCheck {
+
+    private static final long BUDGET_BYTES_PER_TICK = 0;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        boolean passed = true;
+        for (int fishCount : new int[] {5, 1_000, 100_000}) {
+            World world = new World(1920, 1080, 42, fishCount);
+            TickInput input = new TickInput();
+
+            // Rozgrzewka: kompilacja JIT oraz jednorazowe powiększenie buforów roboczych
+            int ticks = fishCount >= 100_000 ? 2_000 : 20_000;
+            runTicks(world, input, ticks);
+
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            runTicks(world, input, ticks);
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            boolean ok = allocated <= BUDGET_BYTES_PER_TICK * ticks;
+            passed &= ok;
+            System.out.printf("%-8s %7d fish: %d B in %d ticks%n", ok ? "OK" : "FAILED", fishCount, allocated, ticks);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Wykonuje kroki symulacji z powtarzalnym wzorcem poleceń gracza:
+     * pływanie w obie strony, opuszczanie haka (a więc i łowienie ryb) oraz próby wejścia do sklepu.
+     */
+    private static void runTicks(World world, TickInput input, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            input.set((t / 200) % 2 == 0, (t / 200) % 2 == 1, t % 60 == 0, t % 90 == 0);
+            world.tick(input);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prosty, bezzależnościowy odpowiednik JMH dla benchmarków gry.
+ * Każdy przypadek jest najpierw rozgrzewany, a następnie mierzony w kilku iteracjach
+ * o stałym czasie trwania. Oprócz czasu na operację raportowane są dane zbierane
+ * tak jak w profilerze GC z JMH: tempo alokacji (MB/s), liczba bajtów alokowanych
+ * na operację oraz liczba i łączny czas odśmiecań.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Pojedyncza mierzona operacja.
+     */
+    public interface Benchmark {
+        /**
+         * Wykonuje jedną operację benchmarku.
+         * @return Dowolna wartość wynikowa, konsumowana przez runner, aby JIT nie usunął obliczeń.
+         */
+        long run() throws Exception;
+    }
+
+    /** Wyniki są sumowane do tego pola, aby kompilator JIT nie wyeliminował mierzonego kodu. */
+    private static volatile long sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final String filter;
+    private final List<String> results = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Tworzy runner o parametrach odczytanych z właściwości systemowych:
+     * {@code bench.warmup}, {@code bench.iterations} i {@code bench.iterationMs}.
+     * @param filter Fragment nazwy benchmarku; uruchamiane są tylko pasujące przypadki (null - wszystkie).
+     */
+    public BenchmarkRunner(String filter) {
+        this.warmupIterations = Integer.getInteger("bench.warmup", 3);
+        this.measurementIterations = Integer.getInteger("bench.iterations", 5);
+        this.iterationNanos = Integer.getInteger("bench.iterationMs", 1000) * 1_000_000L;
+        this.filter = filter;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Uruchamia benchmark i zapamiętuje wiersz wyniku.
+     * @param name Nazwa benchmarku.
+     * @param benchmark Mierzona operacja.
+     */
+    public void run(String name, Benchmark benchmark) throws Exception {
+        if (filter != null && !name.contains(filter)) {
+            return;
+        }
+        for (int i = 0; i < warmupIterations; i++) {
+            measure(benchmark);
+        }
+
+        long ops = 0, nanos = 0, bytes = 0, gcCount = 0, gcMillis = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long gcCountBefore = totalGcCount(), gcMillisBefore = totalGcMillis();
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long iterationOps = measure(benchmark);
+            nanos += System.nanoTime() - start;
+            bytes += allocatedBytes() - bytesBefore;
+            gcCount += totalGcCount() - gcCountBefore;
+            gcMillis += totalGcMillis() - gcMillisBefore;
+            ops += iterationOps;
+        }
+
+        double nsPerOp = (double) nanos / ops;
+        double bytesPerOp = (double) bytes / ops;
+        double allocRate = bytes / (nanos / 1e9) / (1024 * 1024);
+        String row = String.format("%-40s %14.1f %14.1f %12.2f %8d %8d",
+                name, nsPerOp, bytesPerOp, allocRate, gcCount, gcMillis);
+        results.add(row);
+        System.out.println(row);
+    }
+
+    /**
+     * Wykonuje operację w pętli przez czas jednej iteracji.
+     * @return Liczba wykonanych operacji.
+     */
+    private long measure(Benchmark benchmark) throws Exception {
+        long ops = 0;
+        long acc = 0;
+        long deadline = System.nanoTime() + iterationNanos;
+        do {
+            // Sprawdzanie zegara co 64 operacje ogranicza narzut samego pomiaru
+            for (int i = 0; i < 64; i++) {
+                acc += benchmark.run();
+            }
+            ops += 64;
+        } while (System.nanoTime() < deadline);
+        sink += acc;
+        return ops;
+    }
+
+    /**
+     * Zwraca liczbę bajtów zaalokowanych dotąd przez bieżący wątek.
+     */
+    public long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * Wypisuje nagłówek tabeli wyników.
+     */
+    public void printHeader() {
+        System.out.println(String.format("%-40s %14s %14s %12s %8s %8s",
+                "Benchmark", "ns/op", "B/op", "MB/s alloc", "gc.count", "gc.ms"));
+    }
+
+    /**
+     * Zwraca zebrane wiersze wyników w kolejności uruchomienia.
+     */
+    public List<String> getResults() {
+        return results;
+    }
+}
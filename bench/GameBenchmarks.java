@@ -0,0 +1,225 @@
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Zestaw benchmarków najgorętszych ścieżek gry: krok symulacji, rysowanie sceny
+ * do obrazu poza ekranem (także w dużym, zatłoczonym świecie), ruch ryb kilku gatunków i rysowanie ryby,
+ * krok logiki minigry, nakładki oraz zapis i odczyt stanu gry w plikach.
+ *
+ * <p>Uruchamianie (z katalogu głównego projektu):
+ * <pre>
+ * javac -encoding UTF-8 -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out GameBenchmarks [fragment-nazwy]
+ * </pre>
+ * Liczbę i długość iteracji można zmienić właściwościami {@code bench.warmup},
+ * {@code bench.iterations} oraz {@code bench.iterationMs}.
+ */
+public class GameBenchmarks {
+
+    private static final Dimension SCREEN = new Dimension(1920, 1080);
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkRunner runner = new BenchmarkRunner(args.length > 0 ? args[0] : null);
+        runner.printHeader();
+
+        // Stan gry zapisywany w trakcie benchmarków trafia do katalogu tymczasowego
+        File dir = Files.createTempDirectory("fishing-bench").toFile();
+        File benchSave = new File(dir, "bench-save.dat");
+        System.setProperty("fishing.saveFile", benchSave.getPath());
+
+        World world = new World(SCREEN.width, SCREEN.height, 42);
+        TickInput input = new TickInput();
+        runner.run("World.tick", () -> world.tick(input).ordinal());
+
+        World crowdedWorld = new World(SCREEN.width, SCREEN.height, 42, 100_000);
+        runner.run("World.tick (100k fish)", () -> crowdedWorld.tick(input).ordinal());
+
+        BoatGame game = new BoatGame(null, SCREEN);
+        game.setSize(SCREEN);
+        runner.run("BoatGame.tick", () -> {
+            game.tick();
+            return 1;
+        });
+
+        // Trzymany klawisz odczytywany w każdym kroku; puszczenie co 20 kroków zmienia kierunek
+        KeyEvent[] arrows = {
+                new KeyEvent(game, 0, 0, 0, KeyEvent.VK_LEFT, (char) 0),
+                new KeyEvent(game, 0, 0, 0, KeyEvent.VK_RIGHT, (char) 0)
+        };
+        int[] inputTicks = {0};
+        runner.run("BoatGame.tick (held arrow key)", () -> {
+            int step = inputTicks[0]++;
+            if (step % 20 == 0) {
+                game.keyReleased(arrows[(step / 20 + 1) & 1]);
+                game.keyPressed(arrows[(step / 20) & 1]);
+            }
+            game.tick();
+            return game.getBoat().getBoatX();
+        });
+        game.keyReleased(arrows[0]);
+        game.keyReleased(arrows[1]);
+
+        BufferedImage frame = new BufferedImage(SCREEN.width, SCREEN.height, BufferedImage.TYPE_INT_ARGB);
+        runner.run("BoatGame.paintComponent", () -> {
+            Graphics2D g = frame.createGraphics();
+            try {
+                game.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+            return frame.getRGB(0, 0);
+        });
+
+        // Jezioro 16 ekranów z 20 tys. ryb: rysowane są tylko ryby w widoku kamery, znalezione w siatce
+        File crowdedDir = new File(dir, "crowded");
+        crowdedDir.mkdir();
+        System.setProperty("fishing.saveFile", new File(crowdedDir, "save.dat").getPath());
+        System.setProperty("fishing.worldScreens", "16");
+        System.setProperty("fishing.fishCount", "20000");
+        BoatGame crowdedGame = new BoatGame(null, SCREEN);
+        crowdedGame.setSize(SCREEN);
+        System.setProperty("fishing.saveFile", benchSave.getPath());
+        System.clearProperty("fishing.worldScreens");
+        System.clearProperty("fishing.fishCount");
+        runner.run("BoatGame.paintComponent (20k fish, 16 screens)", () -> {
+            crowdedGame.tick();
+            Graphics2D g = frame.createGraphics();
+            try {
+                crowdedGame.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+            return frame.getRGB(0, 0);
+        });
+        crowdedGame.close(); // Wątki zapisu i odbiornik GC gry nie mogą wpływać na kolejne pomiary
+
+        // Ławica dwóch gatunków w jednej puli, poniżej progu ruchu równoległego
+        FishSpecies[] species = {FishSpecies.ORANGE, FishSpecies.RED};
+        FishPool mixedFish = new FishPool(species, 1_000);
+        SplittableRandom spawn = new SplittableRandom(42);
+        for (int i = 0; i < 1_000; i++) {
+            int s = i % 10 == 0 ? 1 : 0;
+            mixedFish.add(s, spawn.nextInt(SCREEN.width - 50), spawn.nextInt(SCREEN.height), spawn.nextBoolean() ? 2 : -2);
+        }
+        FishMover mover = new FishMover(mixedFish, new RandomStreams(42), ForkJoinPool.commonPool());
+        runner.run("FishMover.move (1000 fish, 2 species)", () -> {
+            mover.move(mixedFish.size(), SCREEN.width);
+            return mixedFish.getX(0);
+        });
+
+        FishSprites fishSprites = new FishSprites();
+        Graphics2D fishGraphics = frame.createGraphics();
+        runner.run("FishSprites red fish draw", () -> {
+            fishGraphics.drawImage(fishSprites.get(fishGraphics.getDeviceConfiguration(), FishSprites.RED_FISH,
+                    FishSpecies.RED.getWidth(), FishSpecies.RED.getHeight(), false), 100, 600, null);
+            return 1;
+        });
+        fishGraphics.dispose();
+
+        FishingMinigame minigame = new FishingMinigame(new PlayerState(), 33, new SplittableRandom(42), new Metrics());
+        int[] minigameTicks = {0};
+        runner.run("FishingMinigame.tick", () -> {
+            // Nowa runda co 50 kroków, zanim pasek postępu zdąży osiągnąć 100%
+            if (minigameTicks[0]++ % 50 == 0) {
+                minigame.beginRound();
+            }
+            return minigame.tick().ordinal();
+        });
+
+        // Przełączenie gry w stan minigry i narysowanie klatki z nakładką
+        runner.run("BoatGame.enterMinigame+paintComponent", () -> {
+            game.enterMinigame((minigameTicks[0]++ & 1) == 0, 0);
+            Graphics2D g = frame.createGraphics();
+            try {
+                game.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+            return frame.getRGB(0, 0);
+        });
+
+        // Komunikat jako nakładka zamiast nowego okna: pokazanie i narysowanie klatki
+        runner.run("BoatGame.showToast+paintComponent", () -> {
+            game.showToast("Złapałeś rybę!");
+            Graphics2D g = frame.createGraphics();
+            try {
+                game.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+            return frame.getRGB(0, 0);
+        });
+        game.close();
+
+        File[] saveFiles = {
+                new File(dir, "money.txt"), new File(dir, "fish_caught.txt"),
+                new File(dir, "hook_upgrade.txt"), new File(dir, "boat_upgrade.txt"),
+                new File(dir, "hook_upgrade_cost.txt"), new File(dir, "boat_upgrade_cost.txt")
+        };
+        runner.run("GameFiles.save+load (6 text files)", () -> {
+            long sum = 0;
+            for (File file : saveFiles) {
+                GameFiles.writeInt(file, 200);
+            }
+            for (File file : saveFiles) {
+                sum += GameFiles.readInt(file, 0);
+            }
+            return sum;
+        });
+        for (File file : saveFiles) {
+            file.delete();
+        }
+
+        SaveFile saveFile = new SaveFile(new File(dir, "save.dat").toPath());
+        PlayerState playerState = new PlayerState();
+        runner.run("SaveFile.save+load", () -> {
+            playerState.setMoney(playerState.getMoney() + 1);
+            saveFile.save(playerState);
+            saveFile.load(playerState);
+            return playerState.getMoney();
+        });
+
+        // Koszt zmiany stanu po stronie wątku gry; zapis na dysk wykonuje wątek w tle
+        PersistenceService persistence = new PersistenceService(saveFile, playerState, 50);
+        playerState.addListener(persistence);
+        persistence.start();
+        runner.run("PlayerState change + requestSave", () -> {
+            playerState.setMoney(playerState.getMoney() + 1);
+            return playerState.getMoney();
+        });
+        persistence.stop();
+        System.out.println(persistence.getLatency() + " (" + persistence.getRequestCount()
+                + " changes in " + persistence.getWriteCount() + " writes)");
+
+        // Transakcje ekonomiczne dopisywane do dziennika; wątek dziennika łączy je w partie z jednym fsync
+        EconomyJournal journal = new EconomyJournal(new File(dir, "economy.journal").toPath(), saveFile, playerState);
+        playerState.setJournal(journal);
+        journal.start();
+        runner.run("PlayerState.catchFish+sellFish (journal)", () -> {
+            playerState.catchFish(1);
+            playerState.sellFish(100);
+            return playerState.getMoney();
+        });
+        journal.close();
+        System.out.println(journal.getLatency() + " (" + journal.getDurableSeq() + " transactions in "
+                + journal.getBatchCount() + " commits)");
+        new File(dir, "economy.journal").delete();
+        new File(dir, "save.dat").delete();
+        new File(dir, "session.flog").delete();
+        for (File file : crowdedDir.listFiles()) {
+            file.delete();
+        }
+        crowdedDir.delete();
+        benchSave.delete();
+        dir.delete();
+
+        System.exit(0);
+    }
+}
@@ -0,0 +1,157 @@
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Benchmark rysowania klatek gry do obrazów poza ekranem w rozdzielczościach 1080p, 1440p i 4K.
+ * Dla każdej rozdzielczości porównuje obrazy docelowe {@code TYPE_INT_RGB}, {@code TYPE_INT_ARGB},
+ * {@code TYPE_INT_ARGB_PRE} oraz obraz zgodny z ekranem ({@code createCompatibleImage}) i podaje
+ * średni czas całej klatki oraz każdej warstwy rysowania w nanosekundach na klatkę, odczytany
+ * z histogramów {@code paint} i {@code layer.*} gry (krok symulacji między klatkami nie jest wliczany).
+ * Każda kombinacja dostaje nową grę, więc obrazy pośrednie (tło, grafiki ryb i chmur)
+ * są tworzone jako zgodne z mierzonym obrazem docelowym.
+ *
+ * <p>W trybie headless nie ma ekranu, więc obraz zgodny pochodzi z konfiguracji obrazu w pamięci;
+ * jego rzeczywisty typ jest podany w nawiasie. Z {@code -Djava.awt.headless=false} i dostępnym
+ * ekranem używana jest konfiguracja ekranu.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true -cp out RenderBenchmark
+ * </pre>
+ * Liczbę klatek rozgrzewki i pomiaru można zmienić właściwościami {@code render.warmup}
+ * oraz {@code render.frames}.
+ */
+public class RenderBenchmark {
+
+    private static final Dimension[] RESOLUTIONS = {
+            new Dimension(1920, 1080), new Dimension(2560, 1440), new Dimension(3840, 2160)
+    };
+    private static final String[] TARGETS = {"INT_RGB", "INT_ARGB", "INT_ARGB_PRE", "compatible"};
+    private static final String[] LAYERS = {"sky", "clouds", "water", "shop", "fish", "boat", "hook", "hud", "logo"};
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        int warmupFrames = Integer.getInteger("render.warmup", 100);
+        int measuredFrames = Integer.getInteger("render.frames", 300);
+
+        // Stan gry zapisywany w trakcie pomiaru trafia do katalogu tymczasowego, bez nagrywania sesji
+        File dir = Files.createTempDirectory("fishing-render").toFile();
+        System.setProperty("fishing.recordFile", "");
+
+        StringBuilder header = new StringBuilder(String.format("%-10s %-24s %12s", "resolution", "image", "frame"));
+        for (String layer : LAYERS) {
+            header.append(String.format(" %10s", layer));
+        }
+        System.out.println(header + "   (ns/frame)");
+
+        int run = 0;
+        for (Dimension resolution : RESOLUTIONS) {
+            for (String target : TARGETS) {
+                File runDir = new File(dir, "run" + run++);
+                runDir.mkdir();
+                System.setProperty("fishing.saveFile", new File(runDir, "save.dat").getPath());
+                BoatGame game = new BoatGame(null, resolution);
+                game.setSize(resolution);
+                BufferedImage frame = createTarget(target, resolution);
+
+                renderFrames(game, frame, warmupFrames);
+                for (Histogram histogram : game.getMetrics().getHistograms()) {
+                    histogram.reset();
+                }
+                renderFrames(game, frame, measuredFrames);
+
+                StringBuilder row = new StringBuilder(String.format("%-10s %-24s %12d",
+                        resolution.width + "x" + resolution.height, describe(target, frame),
+                        mean(game.getMetrics(), "paint")));
+                for (String layer : LAYERS) {
+                    row.append(String.format(" %10d", mean(game.getMetrics(), "layer." + layer)));
+                }
+                System.out.println(row);
+
+                // Wątki zapisu i odbiornik GC gry nie mogą wpływać na kolejne pomiary
+                game.close();
+                for (File file : runDir.listFiles()) {
+                    file.delete();
+                }
+                runDir.delete();
+            }
+        }
+        dir.delete();
+        System.exit(0);
+    }
+
+    /**
+     * Wykonuje podaną liczbę kroków gry, rysując po każdym z nich klatkę do obrazu.
+     */
+    private static void renderFrames(BoatGame game, BufferedImage frame, int frames) {
+        for (int i = 0; i < frames; i++) {
+            game.tick();
+            Graphics2D g = frame.createGraphics();
+            try {
+                game.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * Tworzy obraz docelowy podanego rodzaju w rozmiarze klatki.
+     */
+    private static BufferedImage createTarget(String target, Dimension size) {
+        switch (target) {
+            case "INT_RGB":
+                return new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+            case "INT_ARGB":
+                return new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+            case "INT_ARGB_PRE":
+                return new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB_PRE);
+            default:
+                GraphicsConfiguration config;
+                if (GraphicsEnvironment.isHeadless()) {
+                    BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+                    Graphics2D g = probe.createGraphics();
+                    config = g.getDeviceConfiguration();
+                    g.dispose();
+                } else {
+                    config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                            .getDefaultConfiguration();
+                }
+                return config.createCompatibleImage(size.width, size.height);
+        }
+    }
+
+    /**
+     * Zwraca nazwę rodzaju obrazu; dla obrazu zgodnego także jego rzeczywisty typ.
+     */
+    private static String describe(String target, BufferedImage image) {
+        if (!target.equals("compatible")) {
+            return target;
+        }
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB: return "compatible (INT_RGB)";
+            case BufferedImage.TYPE_INT_ARGB: return "compatible (INT_ARGB)";
+            case BufferedImage.TYPE_INT_ARGB_PRE: return "compatible (INT_ARGB_PRE)";
+            case BufferedImage.TYPE_INT_BGR: return "compatible (INT_BGR)";
+            default: return "compatible (type " + image.getType() + ")";
+        }
+    }
+
+    /**
+     * Zwraca średnią histogramu gry o podanej nazwie (dla czasów - w nanosekundach na klatkę).
+     */
+    private static long mean(Metrics metrics, String name) {
+        for (Histogram histogram : metrics.getHistograms()) {
+            if (histogram.getName().equals(name)) {
+                return histogram.getMean();
+            }
+        }
+        return 0;
+    }
+}
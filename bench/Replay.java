@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Odtwarza nagraną sesję gry ({@link InputLog}) bez okna i bez limitu kroków na sekundę:
+ * tworzy sesję w nagranym stanie początkowym, podaje jej kolejne maski poleceń i porównuje
+ * wynik (liczbę kroków, skrót stanu symulacji, pieniądze i złowione ryby) z wynikiem
+ * zapisanym w dzienniku. Stan gracza odtworzenia nie trafia do pliku zapisu.
+ * Program kończy się kodem 1, gdy wynik się różni, więc nagrane sesje mogą służyć
+ * jako powtarzalne testy regresji wydajności i do odtwarzania błędów.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true -cp out Replay session.flog [liczba-powtórzeń]
+ * </pre>
+ */
+public class Replay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Użycie: Replay <plik-dziennika> [liczba-powtórzeń]");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[0]);
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        boolean passed = true;
+        for (int r = 0; r < repeats; r++) {
+            try (InputLog.Reader reader = new InputLog.Reader(path)) {
+                GameSession session = reader.createSession(new Metrics());
+                long start = System.nanoTime();
+                while (reader.next()) {
+                    session.setHookFloor(reader.getHookFloor());
+                    int mask = reader.getMask();
+                    for (int t = reader.getRunLength(); t > 0; t--) {
+                        session.tick(mask);
+                    }
+                }
+                long elapsed = System.nanoTime() - start;
+
+                PlayerState playerState = session.getPlayerState();
+                System.out.printf("seed=%d ticks=%d hash=%016x money=%d fish=%d  %.1f ms (%.0f ticks/s)%n",
+                        reader.getSeed(), session.getTickCount(), session.stateHash(), playerState.getMoney(),
+                        playerState.getFishCaught(), elapsed / 1e6, session.getTickCount() * 1e9 / elapsed);
+                if (!reader.hasResult()) {
+                    System.out.println("Dziennik przerwanej sesji - brak wyniku do porównania");
+                } else if (reader.getResultTicks() == session.getTickCount()
+                        && reader.getResultStateHash() == session.stateHash()
+                        && reader.getResultMoney() == playerState.getMoney()
+                        && reader.getResultFishCaught() == playerState.getFishCaught()) {
+                    System.out.println("OK: wynik zgodny z nagraniem");
+                } else {
+                    passed = false;
+                    System.out.printf("FAILED: nagranie ticks=%d hash=%016x money=%d fish=%d%n",
+                            reader.getResultTicks(), reader.getResultStateHash(), reader.getResultMoney(),
+                            reader.getResultFishCaught());
+                }
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
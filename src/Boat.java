@@ -13,7 +13,7 @@ public class Boat {
     private int hookX, hookY;
     private boolean hookDropped = false;
     private final int hookSpeed = 5;
-    private int screenWidth;
+    private int worldWidth;
     private double speedMultiplier = 1.0;
     private final int baseSpeed = 8;
     private int hookUpgradeLevel = 0;
@@ -28,17 +28,32 @@ public class Boat {
     // Zmienna do śledzenia kierunku łodzi (dla odbicia lustrzanego grafiki)
     private boolean facingLeft = false;
 
+    // Pozycje z poprzedniego kroku symulacji, używane do interpolacji podczas rysowania
+    private int previousBoatX;
+    private int previousHookX, previousHookY;
+
     /**
      * Konstruktor klasy Boat.
-     * @param screenWidth Szerokość ekranu gry.
+     * @param worldWidth Szerokość świata gry (może obejmować wiele ekranów).
      * @param waterLevel Poziom wody, na którym unosi się łódź.
      */
-    public Boat(int screenWidth, int waterLevel) {
-        this.screenWidth = screenWidth;
-        this.boatX = screenWidth / 2 - boatWidth / 2; // Początkowa pozycja na środku ekranu
+    public Boat(int worldWidth, int waterLevel) {
+        this.worldWidth = worldWidth;
+        this.boatX = worldWidth / 2 - boatWidth / 2; // Początkowa pozycja na środku świata
         this.boatY = waterLevel - boatHeight;
         this.hookX = boatX + boatWidth / 2;
         this.hookY = boatY + boatHeight;
+        savePreviousState();
+    }
+
+    /**
+     * Zapamiętuje bieżące pozycje łodzi i haka jako stan poprzedniego kroku.
+     * Wywoływane na początku każdego kroku symulacji.
+     */
+    public void savePreviousState() {
+        previousBoatX = boatX;
+        previousHookX = hookX;
+        previousHookY = hookY;
     }
 
     /**
@@ -63,11 +78,11 @@ public class Boat {
 
     /**
      * Aktualizuje pozycję łodzi na podstawie jej prędkości i tarcia.
-     * Zapobiega wyjściu łodzi poza ekran.
+     * Zapobiega wyjściu łodzi poza świat.
      */
     private void updatePosition() {
         boatX += (int)velocityX;
-        boatX = Math.max(0, Math.min(screenWidth - boatWidth, boatX)); // Blokada na krawędziach ekranu
+        boatX = Math.max(0, Math.min(worldWidth - boatWidth, boatX)); // Blokada na krawędziach świata
 
         // Haczyk podąża za łódką, jego pozycja zależy od kierunku zwrotu łodzi
         if (facingLeft) {
@@ -138,7 +153,13 @@ public class Boat {
     public int getHookX() { return hookX; }
     public int getHookY() { return hookY; }
     public boolean isHookDropped() { return hookDropped; }
-    public void setBoatX(int x) { this.boatX = x; }
+    public void setBoatX(int x) {
+        this.boatX = x;
+        this.previousBoatX = x; // Przeniesienie łodzi nie jest interpolowane
+    }
+    public int getPreviousBoatX() { return previousBoatX; }
+    public int getPreviousHookX() { return previousHookX; }
+    public int getPreviousHookY() { return previousHookY; }
     public void setSpeedMultiplier(double multiplier) { this.speedMultiplier = multiplier; }
     public void setHookUpgradeLevel(int level) { this.hookUpgradeLevel = level; }
     public int getHookUpgradeLevel() { return hookUpgradeLevel; }
@@ -2,50 +2,95 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
-import java.util.Random;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 
 /**
  * Main class for the Boat Fishing Game.
- * This class handles the primary game logic, rendering, user input, and state management,
- * featuring a distinctive pixel art graphical style.
+ * This class handles rendering, user input, and state management, featuring a distinctive
+ * pixel art graphical style. The world itself is simulated by the headless {@link World}.
  */
-public class BoatGame extends JPanel implements ActionListener, KeyListener {
+public class BoatGame extends JPanel implements KeyListener {
+    private final GameSession session; // Headless game: the world, minigame, shop and toasts driven by input masks.
+    private World world; // Headless simulation holding the boat, hook and fish.
     private Boat boat;
-    private Timer timer;
-    private Timer fishSpawnTimer;
-    private Random random;
-    private int[] fishX = new int[5];
-    private int[] fishY = new int[5];
-    private final int fishWidth = 30;
-    private final int fishHeight = 20;
-    private int[] fishSpeed = new int[5];
-    private boolean[] fishFacingLeft = new boolean[5]; // Śledzi kierunek każdej ryby
+    private final InputState input = new InputState(); // Keyboard state, polled once per tick.
+    private int pendingCommands = 0; // Shop buttons and toast clicks, passed to the session on the next tick.
+    private GameLoop gameLoop; // Fixed-timestep loop running the simulation on its own thread.
+    private volatile double renderAlpha = 1.0; // Interpolation factor between the previous and current tick.
+    private volatile GameCanvas activeCanvas; // Active-rendering surface; null when painting through Swing.
+    private int viewWidth, viewHeight; // Size of the surface the current frame is drawn on.
+    private int cameraX = 0; // Left edge of the view in world coordinates, for the frame being drawn.
+    private int dirtyCameraX = -1; // Camera position of the previous dirty-region frame.
+    private SplittableRandom random; // Cloud layout, from the world's random streams.
     private JFrame frame;
     private int screenWidth, screenHeight;
     private int waterLevel;
-    private boolean gamePaused = false;
-    private final int fishCount = 5;
-    private final int shopWidth = 150;
-    private final int shopHeight = 100;
     private Rectangle shopArea;
-    private Fish2[] fish2Array = new Fish2[2];
-    private int fishCaught = 0;
-    private int money = 0;
-    private Shop shop;
-    private boolean shopOpen = false;
-    private final File moneyFile = new File("money.txt");
-    private JLabel moneyLabel;
-    private boolean upArrowPressed = false;
-    private final File boatUpgradeFile = new File("boat_upgrade.txt");
+    private final PlayerState playerState = new PlayerState(); // Money, fish and upgrades shared with the shop and minigame.
+    private final Shop shop; // Shop overlay, drawn on the game surface while in the SHOP state.
+    private final PersistenceService persistence; // Writes the player state to the save file in the background.
+    private final EconomyJournal journal; // Durable log of economy transactions made since the last save.
+    private long minigameHookedNanos = 0; // When the current fish was hooked, until the first minigame frame.
+    private final LatencyMeter minigameLatency = new LatencyMeter("hook-to-minigame");
+
+    // Performance histograms, shown by the F3 debug overlay and exported to CSV with F4.
+    private final Metrics metrics = new Metrics();
+    private final DebugOverlay debugOverlay = new DebugOverlay(metrics);
+    private final Histogram tickTime = metrics.timer("tick");
+    private final Histogram paintTime = metrics.timer("paint");
+    private final Histogram frameInterval = metrics.timer("frame.interval");
+    private final Histogram frameAllocation = metrics.histogram("alloc.frame", "B");
+    private final Histogram skyLayerTime = metrics.timer("layer.sky");
+    private final Histogram waterLayerTime = metrics.timer("layer.water");
+    private final Histogram cloudsLayerTime = metrics.timer("layer.clouds");
+    private final Histogram shopLayerTime = metrics.timer("layer.shop");
+    private final Histogram logoLayerTime = metrics.timer("layer.logo");
+    private final Histogram boatLayerTime = metrics.timer("layer.boat");
+    private final Histogram hookLayerTime = metrics.timer("layer.hook");
+    private final Histogram fishLayerTime = metrics.timer("layer.fish");
+    private final Histogram hudLayerTime = metrics.timer("layer.hud");
+    private final Histogram overlayLayerTime = metrics.timer("layer.overlays");
+    private long lastFrameNanos = 0; // Start of the previous game loop frame.
+    private long lastAllocatedBytes = -1; // Bytes allocated by the game loop thread up to the previous frame.
+    private final MouseAdapter overlayMouse = new MouseAdapter() {
+        @Override
+        public void mousePressed(MouseEvent e) {
+            overlayClicked(e.getX(), e.getY());
+        }
+    };
+    private final FocusAdapter inputFocus = new FocusAdapter() {
+        @Override
+        public void focusLost(FocusEvent e) {
+            synchronized (world) {
+                input.releaseAll(); // Key releases are not delivered without focus.
+            }
+        }
+    };
 
     private BufferedImage logoImage; // Stores the loaded logo image.
-
-    // Arrays for storing the positions and sizes of procedurally generated clouds.
-    private int[] cloudX = new int[8];
-    private int[] cloudY = new int[8];
-    private int[] cloudSize = new int[8];
+    private BufferedImage backgroundCache; // Pre-rendered sky and water, rebuilt only when the view is resized.
+    private final BufferedImage[] cloudSprites = new BufferedImage[3]; // Pre-rendered cloud of each size.
+    private BufferedImage waveStrip; // One row of surface waves, a few wave periods wider than the view.
+    private BufferedImage shopSprite; // Pre-rendered shop building.
+    private BufferedImage logoSprite; // Pre-rendered logo panel.
+    private final FishSprites fishSprites = new FishSprites(); // Pre-rendered fish in both orientations.
+    private final HudLayer hudLayer = new HudLayer(fishSprites); // Cached fish count and money panel.
+    private final DirtyRegions dirtyRegions = new DirtyRegions(); // Areas changed since the last Swing frame.
+    private final Runnable dirtyFramePainter = this::paintDirtyFrame; // Reused so posting a frame does not allocate.
+    private volatile boolean dirtyFramePending = false; // A dirty-region frame is already queued on the EDT.
+    private boolean paintingDirtyRegions = false; // True while paintDirtyFrame() drives paintComponent().
+    private double dirtyFrameAlpha = 1.0; // Interpolation factor used by every region of the current frame.
+    private int hudFishCaught = -1, hudMoney = -1; // Fish count and money shown by the HUD in the current frame.
+
+    // Arrays for storing the world positions and sizes of procedurally generated clouds.
+    private int[] cloudX;
+    private int[] cloudY;
+    private int[] cloudSize;
 
     // Defines the color palette for the pixel art graphics.
     private final Color SKY_BLUE = new Color(135, 206, 235);
@@ -53,29 +98,82 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
     private final Color WATER_DARK = new Color(25, 25, 112);
     private final Color BOAT_BROWN = new Color(139, 69, 19);
     private final Color BOAT_DARK = new Color(101, 67, 33);
-    private final Color FISH_ORANGE = new Color(255, 140, 0);
     private final Color FISH_RED = new Color(220, 20, 60);
     private final Color SHOP_WOOD = new Color(160, 82, 45);
     private final Color ROPE_COLOR = new Color(101, 67, 33);
 
+    // Fonts are created once instead of on every draw call.
+    private static final Font SHOP_SIGN_FONT = new Font("Monospaced", Font.BOLD, 12);
+    private static final Font LOGO_FONT = new Font("Arial", Font.BOLD, 22);
+    private static final Font LOGO_PLACEHOLDER_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    private static final int WAVE_PERIOD = 20; // The surface wave pattern repeats every 20 px.
+    private static final int CULL_MARGIN = 8; // More than any object moves in one tick.
+
     /**
      * Constructor for the BoatGame panel.
-     * Initializes game components, loads saved data, sets up timers, and configures the game window.
+     * Initializes game components, loads saved data, starts the game loop, and configures the game window.
      * @param frame The main JFrame that will contain this game panel.
      */
     public BoatGame(JFrame frame) {
+        this(frame, Toolkit.getDefaultToolkit().getScreenSize());
+        gameLoop.start();
+    }
+
+    /**
+     * Creates the game panel for a world of the given size without starting the game loop.
+     * Used directly by headless benchmarks, which drive ticks and painting themselves.
+     * @param frame The main JFrame that will contain this game panel (may be null when headless).
+     * @param screenSize The size of one screen; the simulated lake is several screens wide.
+     */
+    BoatGame(JFrame frame, Dimension screenSize) {
         this.frame = frame;
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         screenWidth = screenSize.width;
         screenHeight = screenSize.height;
-        waterLevel = screenHeight / 2;
 
-        boat = new Boat(screenWidth, waterLevel);
-        // Sets a lower base speed for the boat for better control.
-        boat.setSpeedMultiplier(0.75);
-        random = new Random();
-        spawnFish();
+        // All player state lives in one binary save file (-Dfishing.saveFile changes its location);
+        // the old text files are migrated on the first start.
+        SaveFile saveFile = new SaveFile(Paths.get(System.getProperty("fishing.saveFile", "save.dat")));
+        saveFile.load(playerState);
+        // Transactions logged after the last snapshot (e.g. before a crash) are replayed on top of it.
+        journal = new EconomyJournal(saveFile.getPath().resolveSibling("economy.journal"), saveFile, playerState);
+        journal.replay();
+        playerState.setJournal(journal);
+        journal.start();
+
+        // One simulation step every 30 ms by default; -Dfishing.tickRate changes the steps per second
+        // and -Dfishing.maxFps caps how often frames are rendered between them.
+        double tickRate = Double.parseDouble(System.getProperty("fishing.tickRate", String.valueOf(1000.0 / 30)));
+        double maxFps = Double.parseDouble(System.getProperty("fishing.maxFps", String.valueOf(displayRefreshRate())));
+        int ticksPerSecond = (int) Math.round(tickRate);
+
+        // The lake is -Dfishing.worldScreens screens wide (4 by default) and the camera follows the boat.
+        // The seed can be fixed with -Dfishing.seed=... to reproduce a session.
+        // The number of regular fish (5 per screen) can be raised with -Dfishing.fishCount=... for stress testing.
+        int worldScreens = Math.max(1, Integer.getInteger("fishing.worldScreens", 4));
+        session = new GameSession(screenWidth * worldScreens, screenHeight,
+                Long.getLong("fishing.seed", System.nanoTime()), Integer.getInteger("fishing.fishCount", 5 * worldScreens),
+                ticksPerSecond, playerState, metrics);
+        world = session.getWorld();
+        waterLevel = world.getWaterLevel();
+        boat = world.getBoat();
+        shopArea = world.getShopArea();
+        random = world.getRandomStreams().forSubsystem("clouds");
         initializeClouds();
+        MinigameAssets.preload(); // Minigame images are decoded in the background, before the first catch.
+
+        // Every session is recorded next to the save file (-Dfishing.recordFile changes the file, an empty
+        // value turns recording off), so it can be replayed headless with the Replay tool.
+        String recordFile = System.getProperty("fishing.recordFile",
+                saveFile.getPath().resolveSibling("session.flog").toString());
+        if (!recordFile.isEmpty()) {
+            try {
+                session.startRecording(Paths.get(recordFile));
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Error creating " + recordFile + ", the session will not be recorded.");
+            }
+        }
 
         // Attempts to load the logo image from the specified file.
         try {
@@ -85,142 +183,58 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
             System.err.println("Error loading LOGO.png. Make sure the file exists in the correct directory.");
         }
 
-        // Initializes the array of special 'Fish2' objects.
-        for (int i = 0; i < fish2Array.length; i++) {
-            fish2Array[i] = new Fish2(screenWidth, waterLevel, screenHeight);
-        }
-
-        loadFishCaughtFromFile();
-        loadMoneyFromFile();
-        loadBoatUpgradeLevel();
-
-        timer = new Timer(30, this); // Main game loop timer, fires every 30ms.
-        fishSpawnTimer = new Timer(3000, e -> respawnFish()); // Timer for respawning fish every 3 seconds.
-        fishSpawnTimer.start();
+        // Every change to the player state is written by a background thread,
+        // at most -Dfishing.saveDelayMs after the first one.
+        persistence = new PersistenceService(saveFile, playerState, Long.getLong("fishing.saveDelayMs", 500));
+        playerState.addListener(persistence);
+        persistence.start();
+
+        metrics.installGcListener();
+        shop = new Shop(playerState);
+        gameLoop = new GameLoop(tickRate, maxFps, this::tick, alpha -> {
+            recordLoopMetrics();
+            renderAlpha = alpha;
+            GameCanvas canvas = activeCanvas;
+            if (canvas != null) {
+                canvas.render(alpha); // Active rendering straight from the game loop thread.
+            } else if (!dirtyFramePending) {
+                // Only the areas that changed are repainted; frames are coalesced while one is still queued.
+                dirtyFramePending = true;
+                SwingUtilities.invokeLater(dirtyFramePainter);
+            }
+        });
 
         setFocusable(true);
         addKeyListener(this);
-        timer.start();
-
-        shopArea = new Rectangle(0, waterLevel - shopHeight, shopWidth, shopHeight);
-        shop = new Shop(this);
-
-        moneyLabel = new JLabel("Pieniądze: " + money + " PLN", SwingConstants.CENTER);
-    }
-
-    /**
-     * Initializes the positions and sizes of clouds for a random background effect.
-     */
-    private void initializeClouds() {
-        for (int i = 0; i < cloudX.length; i++) {
-            cloudX[i] = random.nextInt(screenWidth - 100);  // Horizontal position with margin.
-            cloudY[i] = random.nextInt(waterLevel / 2);     // Vertical position in the upper sky.
-            cloudSize[i] = random.nextInt(3) + 1;           // Random size variation (1 to 3).
-        }
-    }
-
-    /**
-     * Loads the total number of caught fish from "fish_caught.txt".
-     * If the file doesn't exist or contains invalid data, the count defaults to 0.
-     * @return The number of fish caught.
-     */
-    private int loadFishCaughtFromFile() {
-        File file = new File("fish_caught.txt");
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line = reader.readLine();
-            if (line != null) {
-                fishCaught = Integer.parseInt(line.trim());
-            } else {
-                fishCaught = 0;
-            }
-        } catch (IOException | NumberFormatException e) {
-            fishCaught = 0;
-            e.printStackTrace();
-        }
-        return fishCaught;
-    }
-
-    /**
-     * Saves the current total of caught fish to "fish_caught.txt".
-     */
-    private void saveFishCaughtToFile() {
-        File file = new File("fish_caught.txt");
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(String.valueOf(fishCaught));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        addMouseListener(overlayMouse);
+        addFocusListener(inputFocus);
     }
 
     /**
-     * Loads the player's money from "money.txt".
-     * If the file doesn't exist or is invalid, money defaults to 0.
+     * Returns the refresh rate of the default screen, used as the default frame rate cap.
+     * Falls back to 60 Hz when running headless or when the rate is unknown.
      */
-    private void loadMoneyFromFile() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(moneyFile))) {
-            String line = reader.readLine();
-            if (line != null) {
-                money = Integer.parseInt(line.trim());
-            }
-        } catch (IOException | NumberFormatException e) {
-            money = 0;
+    private static int displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 60;
         }
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : refreshRate;
     }
 
     /**
-     * Saves the player's current money to "money.txt".
+     * Initializes the positions and sizes of clouds for a random background effect, eight per screen of the world.
      */
-    private void saveMoneyToFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(moneyFile))) {
-            writer.write(String.valueOf(money));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Updates the player's money, saves it, and refreshes the on-screen display.
-     * @param newMoney The new amount of money.
-     */
-    public void updateMoneyDisplay(int newMoney) {
-        money = newMoney;
-        moneyLabel.setText("Pieniądze: " + money + " PLN");
-        saveMoneyToFile();
-        repaint();
-    }
-
-    /**
-     * Populates the game with fish at the beginning of a session, assigning random positions and speeds.
-     */
-    private void spawnFish() {
-        int minFishY = waterLevel + 50; // Ensures fish spawn below the water surface.
-        for (int i = 0; i < fishCount; i++) {
-            fishX[i] = random.nextInt(screenWidth - fishWidth);
-            fishY[i] = random.nextInt(screenHeight - minFishY - fishHeight) + minFishY;
-            fishSpeed[i] = random.nextBoolean() ? 2 : -2;
-            fishFacingLeft[i] = fishSpeed[i] < 0; // Ustawia początkowy kierunek
-        }
-    }
-
-    /**
-     * Respawns fish that have been caught and replenishes the special 'Fish2' types.
-     * This method is called periodically by the fishSpawnTimer.
-     */
-    private void respawnFish() {
-        int minFishY = waterLevel + 50; // Ensures fish respawn below the water surface.
-        for (int i = 0; i < fishCount; i++) {
-            if (fishY[i] < 0) { // A negative Y position indicates the fish was caught.
-                fishX[i] = random.nextInt(screenWidth - fishWidth);
-                fishY[i] = random.nextInt(screenHeight - minFishY - fishHeight) + minFishY;
-                fishSpeed[i] = random.nextBoolean() ? 2 : -2;
-                fishFacingLeft[i] = fishSpeed[i] < 0; // Ustawia kierunek dla nowej ryby
-            }
-        }
-
-        for (int i = 0; i < fish2Array.length; i++) {
-            if (!fish2Array[i].isVisible()) {
-                fish2Array[i] = new Fish2(screenWidth, waterLevel, screenHeight);
-            }
+    private void initializeClouds() {
+        int cloudCount = 8 * Math.max(1, world.getWidth() / screenWidth);
+        cloudX = new int[cloudCount];
+        cloudY = new int[cloudCount];
+        cloudSize = new int[cloudCount];
+        for (int i = 0; i < cloudCount; i++) {
+            cloudX[i] = random.nextInt(world.getWidth() - 100);  // Horizontal position with margin.
+            cloudY[i] = random.nextInt(waterLevel / 2);     // Vertical position in the upper sky.
+            cloudSize[i] = random.nextInt(3) + 1;           // Random size variation (1 to 3).
         }
     }
 
@@ -243,55 +257,44 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
     }
 
     /**
-     * Renders a fish using ovals and polygons for a pixel art appearance.
+     * Renders every fish in view, of any species, by blitting the pre-rendered sprite for its
+     * sprite id, size and facing. Must be called in world coordinates while holding the world lock.
      */
-    private void drawPixelFish(Graphics g, int x, int y, int width, int height, Color fishColor, boolean facingLeft) {
-        Graphics2D g2d = (Graphics2D) g.create(); // Użyj kopii, aby transformacje nie wpływały na inne elementy
-        try {
-            // Domyślny obrazek ryby jest skierowany w lewo.
-            // Odwracamy go (aby był skierowany w prawo) tylko wtedy, gdy facingLeft jest fałszywe.
-            if (!facingLeft) {
-                // Odwróć grafikę w poziomie
-                g2d.translate(x + width, y);
-                g2d.scale(-1, 1);
-                g2d.translate(-x, -y);
-            }
-
-            // Poniższy kod rysuje rybę skierowaną w lewo (ogon po prawej, oko po lewej)
-            g2d.setColor(fishColor);
-            g2d.fillOval(x, y, width - 8, height); // Ciało
-            int[] tailX = {x + width - 8, x + width, x + width - 8}; // Ogon
-            int[] tailY = {y, y + height/2, y + height};
-            g2d.fillPolygon(tailX, tailY, 3);
-            g2d.setColor(Color.BLACK);
-            g2d.drawOval(x, y, width - 8, height);
-            g2d.drawPolygon(tailX, tailY, 3);
-            g2d.setColor(Color.WHITE);
-            g2d.fillOval(x + 2, y + 3, 6, 6); // Oko
-            g2d.setColor(Color.BLACK);
-            g2d.fillOval(x + 4, y + 5, 2, 2);
-            g2d.setColor(fishColor.darker());
-            g2d.drawLine(x + 3, y + height/2, x + width - 12, y + height/2);
-        } finally {
-            g2d.dispose(); // Zwolnij zasoby kopii
+    private void drawVisibleFish(Graphics2D g2d, double alpha) {
+        GraphicsConfiguration config = g2d.getDeviceConfiguration();
+        FishPool fish = world.getFish();
+        int visibleFish = queryVisibleFish();
+        int[] visible = world.getFishQueryResult();
+        for (int c = 0; c < visibleFish; c++) {
+            int i = visible[c];
+            BufferedImage sprite = fishSprites.get(config, fish.getSprite(i), fish.getWidth(i), fish.getHeight(i),
+                    fish.isFacingLeft(i));
+            g2d.drawImage(sprite, lerp(fish.getPreviousX(i), fish.getX(i), alpha), fish.getY(i), null);
         }
     }
 
     /**
-     * Renders the water with a gradient effect and surface waves.
+     * Renders the water with a gradient effect. The gradient only changes with depth,
+     * so it looks the same wherever the camera is.
      */
     private void drawPixelWater(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
-        for (int i = 0; i < getHeight() - waterLevel; i += 8) {
+        for (int i = 0; i < viewHeight - waterLevel; i += 8) {
             int alpha = Math.min(255, 50 + i/2);
             Color waterColor = new Color(WATER_BLUE.getRed(), WATER_BLUE.getGreen(), WATER_BLUE.getBlue(), alpha);
             g2d.setColor(waterColor);
-            g2d.fillRect(0, waterLevel + i, getWidth(), 8);
+            g2d.fillRect(0, waterLevel + i, viewWidth, 8);
         }
+    }
+
+    /**
+     * Renders a row of surface waves of the given width, starting at the left edge and the given height.
+     */
+    private void drawPixelWaves(Graphics2D g2d, int width, int y) {
         g2d.setColor(Color.WHITE);
-        for (int x = 0; x < getWidth(); x += 20) {
-            g2d.drawLine(x, waterLevel, x + 10, waterLevel + 2);
-            g2d.drawLine(x + 10, waterLevel + 2, x + 20, waterLevel);
+        for (int x = 0; x < width; x += WAVE_PERIOD) {
+            g2d.drawLine(x, y, x + 10, y + 2);
+            g2d.drawLine(x + 10, y + 2, x + 20, y);
         }
     }
 
@@ -317,7 +320,7 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
         g2d.fillRect(shopArea.x + 10, shopArea.y + 20, shopArea.width - 20, 20);
         g2d.setColor(Color.BLACK);
         g2d.drawRect(shopArea.x + 10, shopArea.y + 20, shopArea.width - 20, 20);
-        g2d.setFont(new Font("Monospaced", Font.BOLD, 12));
+        g2d.setFont(SHOP_SIGN_FONT);
         g2d.drawString("SKLEP", shopArea.x + 45, shopArea.y + 35);
         g2d.setColor(SHOP_WOOD.darker());
         g2d.fillRect(shopArea.x + 60, shopArea.y + 45, 30, 55);
@@ -330,19 +333,20 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
     /**
      * Renders the fishing line and hook when it is dropped.
      */
-    private void drawPixelHook(Graphics g) {
+    private void drawPixelHook(Graphics g, double alpha) {
         Graphics2D g2d = (Graphics2D) g;
 
         if (boat.isHookDropped()) {
+            int hookX = lerp(boat.getPreviousHookX(), boat.getHookX(), alpha);
+            int hookY = lerp(boat.getPreviousHookY(), boat.getHookY(), alpha);
             g2d.setColor(ROPE_COLOR);
             g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(boat.getHookX(), boat.getBoatY() + boat.getBoatHeight(),
-                    boat.getHookX(), boat.getHookY());
+            g2d.drawLine(hookX, boat.getBoatY() + boat.getBoatHeight(), hookX, hookY);
             g2d.setColor(Color.GRAY);
-            g2d.fillRect(boat.getHookX() - 3, boat.getHookY(), 6, 8);
+            g2d.fillRect(hookX - 3, hookY, 6, 8);
             g2d.setColor(Color.DARK_GRAY);
-            g2d.drawRect(boat.getHookX() - 3, boat.getHookY(), 6, 8);
-            g2d.drawArc(boat.getHookX() - 5, boat.getHookY() + 6, 10, 6, 0, 180);
+            g2d.drawRect(hookX - 3, hookY, 6, 8);
+            g2d.drawArc(hookX - 5, hookY + 6, 10, 6, 0, 180);
         }
     }
 
@@ -364,48 +368,23 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
             g2d.setColor(new Color(204, 0, 51));
             g2d.fillRect(25, 20, 60, 60);
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 10));
+            g2d.setFont(LOGO_PLACEHOLDER_FONT);
             g2d.drawString("Logo", 40, 50);
         }
 
         g2d.setColor(new Color(50, 50, 50));
-        g2d.setFont(new Font("Arial", Font.BOLD, 22));
+        g2d.setFont(LOGO_FONT);
         g2d.drawString("Państwowa Akademia", 90, 45);
-        g2d.setFont(new Font("Arial", Font.BOLD, 22));
         g2d.drawString("Nauk Stosowanych", 90, 65);
-        g2d.setFont(new Font("Arial", Font.BOLD, 22));
         g2d.drawString("w Krośnie", 90, 85);
     }
 
     /**
-     * Renders the user interface (UI) panel, showing fish count and money.
+     * Renders the user interface (UI) panel, showing fish count and money, from its cached image.
      */
     private void drawPixelUI(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setColor(new Color(0, 0, 0, 100));
-        g2d.fillRect(getWidth() - 250, 10, 240, 70);
-        g2d.setColor(Color.YELLOW);
-        g2d.drawRect(getWidth() - 250, 10, 240, 70);
-        g2d.setColor(Color.ORANGE);
-        g2d.setFont(new Font("Monospaced", Font.BOLD, 14));
-
-        // Draw the fish icon next to the fish count.
-        // Domyślnie skierowana w lewo, co pasuje do ułożenia obok tekstu.
-        drawPixelFish(g, getWidth() - 240, 15, 20, 12, FISH_ORANGE, true);
-        g2d.drawString("Złapane ryby: " + fishCaught, getWidth() - 215, 30);
-
-        // Draw the money icon next to the money display.
-        g2d.setColor(Color.YELLOW);
-        g2d.fillOval(getWidth() - 240, 35, 12, 12);
-        g2d.setColor(Color.BLACK);
-        g2d.drawOval(getWidth() - 240, 35, 12, 12);
-        g2d.setFont(new Font("Monospaced", Font.BOLD, 8));
-        g2d.drawString("$", getWidth() - 236, 44);
-
-        // Set the font and color for the money text.
-        g2d.setColor(Color.yellow);
-        g2d.setFont(new Font("Monospaced", Font.BOLD, 14));
-        g2d.drawString("Pieniądze: " + money + " PLN", getWidth() - 215, 50);
+        // The panel is re-rendered only when the fish count or money changes.
+        hudLayer.draw((Graphics2D) g, viewWidth - 250, 10, hudFishCaught, hudMoney);
     }
 
     /**
@@ -415,228 +394,598 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
      */
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        if (!paintingDirtyRegions) {
+            // A repaint requested by the system draws objects at positions the tracker does not know,
+            // so the next frame has to repaint everything.
+            dirtyRegions.invalidateAll();
+        }
+        // The scene covers the whole panel, so the background is not cleared first.
+        renderFrame((Graphics2D) g, getWidth(), getHeight(), paintingDirtyRegions ? dirtyFrameAlpha : renderAlpha);
+    }
 
-        // Disable anti-aliasing to maintain the crisp pixel art aesthetic.
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+    /**
+     * Paints one frame of the Swing path by repainting only the areas that changed since the
+     * previous frame: the old and new bounds of every moving object and the HUD panel when its
+     * values change. Runs on the EDT. The world lock is held for the whole frame, so all regions
+     * show the same simulation state.
+     */
+    private void paintDirtyFrame() {
+        dirtyFramePending = false;
+        int width = getWidth(), height = getHeight();
+        if (!isShowing() || width <= 0 || height <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (world) {
+            if (width != viewWidth || height != viewHeight) {
+                dirtyRegions.invalidateAll();
+                viewWidth = width;
+                viewHeight = height;
+            }
+            dirtyFrameAlpha = session.getState() != GameState.PLAYING ? 1.0 : renderAlpha;
+            updateCamera(dirtyFrameAlpha);
+            if (cameraX != dirtyCameraX) {
+                dirtyRegions.invalidateAll(); // The whole scene has scrolled.
+                dirtyCameraX = cameraX;
+            }
+            collectDirtyBounds(dirtyFrameAlpha);
+
+            // RepaintManager would union separate repaint(rect) calls into one large area,
+            // so each merged region is painted immediately instead.
+            int count = dirtyRegions.computeRegions(width, height);
+            paintingDirtyRegions = true;
+            try {
+                if (count < 0) {
+                    paintImmediately(0, 0, width, height);
+                } else {
+                    int[] regions = dirtyRegions.getRegions();
+                    for (int i = 0; i < count * 4; i += 4) {
+                        paintImmediately(regions[i], regions[i + 1], regions[i + 2], regions[i + 3]);
+                    }
+                }
+            } finally {
+                paintingDirtyRegions = false;
+            }
+            dirtyRegions.endFrame();
+            paintTime.record(System.nanoTime() - start);
+            frameShown();
+        }
+    }
 
-        // Render all visual layers in order from back to front.
-        g2d.setColor(SKY_BLUE);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+    /**
+     * Records the screen bounds of everything that moves or changes in this frame, matching
+     * exactly what {@link #renderScene(Graphics2D, double)} draws. World objects are shifted by the
+     * camera, and only those in view are recorded. Must be called while holding the world lock.
+     */
+    private void collectDirtyBounds(double alpha) {
+        // Boat hull plus the mast and flag above it.
+        int boatX = lerp(boat.getPreviousBoatX(), boat.getBoatX(), alpha) - cameraX;
+        int boatWidth = boat.getBoatWidth();
+        dirtyRegions.add(boatX, boat.getBoatY() - 20, Math.max(boatWidth + 1, boatWidth / 2 + 14),
+                boat.getBoatHeight() + 21);
 
-        g2d.setColor(Color.WHITE);
-        for (int i = 0; i < cloudX.length; i++) {
-            drawPixelCloud(g2d, cloudX[i], cloudY[i], cloudSize[i]);
+        if (boat.isHookDropped()) {
+            // Line from the boat down to the hook, widened by the stroke and the arc below the hook.
+            int hookX = lerp(boat.getPreviousHookX(), boat.getHookX(), alpha) - cameraX;
+            int hookY = lerp(boat.getPreviousHookY(), boat.getHookY(), alpha);
+            int lineTop = Math.min(boat.getBoatY() + boat.getBoatHeight(), hookY) - 1;
+            dirtyRegions.add(hookX - 5, lineTop, 11, hookY + 13 - lineTop);
+        }
+
+        FishPool fish = world.getFish();
+        int visibleFish = queryVisibleFish();
+        int[] visible = world.getFishQueryResult();
+        for (int c = 0; c < visibleFish; c++) {
+            int i = visible[c];
+            dirtyRegions.add(lerp(fish.getPreviousX(i), fish.getX(i), alpha) - cameraX, fish.getY(i),
+                    fish.getWidth(i) + 1, fish.getHeight(i) + 1);
+        }
+
+        if (updateHudValues()) {
+            dirtyRegions.add(viewWidth - 250, 10, HudLayer.WIDTH, HudLayer.HEIGHT);
+        }
+
+        // Overlays are repainted every frame while visible; the frame after one closes repaints
+        // its area through the previous frame's bounds.
+        GameState state = session.getState();
+        if (state == GameState.MINIGAME) {
+            dirtyRegions.add(overlayX(FishingMinigame.WIDTH), overlayY(FishingMinigame.HEIGHT),
+                    FishingMinigame.WIDTH, FishingMinigame.HEIGHT);
+        }
+        if (isShopVisible()) {
+            dirtyRegions.add(overlayX(Shop.WIDTH), overlayY(Shop.HEIGHT), Shop.WIDTH, Shop.HEIGHT);
         }
+        if (state == GameState.TOAST) {
+            dirtyRegions.add(overlayX(Toast.WIDTH), toastY(), Toast.WIDTH, Toast.HEIGHT);
+        }
+        if (debugOverlay.isVisible()) {
+            dirtyRegions.add(10, 100, DebugOverlay.WIDTH, debugOverlay.getHeight());
+        }
+    }
 
-        drawPixelWater(g);
-        drawPixelShop(g);
-        drawPixelBoat(g2d, boat.getBoatX(), boat.getBoatY(), boat.getBoatWidth(), boat.getBoatHeight());
-        drawPixelHook(g);
+    /**
+     * Draws one complete frame onto any surface: the Swing panel, the active-rendering
+     * canvas or an offscreen image.
+     * @param g2d The Graphics context to draw on.
+     * @param width The width of the target surface.
+     * @param height The height of the target surface.
+     * @param alpha Interpolation factor: 0 is the previous tick, 1 the current one.
+     */
+    void renderFrame(Graphics2D g2d, int width, int height, double alpha) {
+        long start = System.nanoTime();
+        synchronized (world) {
+            viewWidth = width;
+            viewHeight = height;
+            if (!paintingDirtyRegions) {
+                updateHudValues(); // The dirty-region pass has already taken them for this frame.
+            }
+            renderScene(g2d, session.getState() != GameState.PLAYING ? 1.0 : alpha);
 
-        for (int i = 0; i < fishCount; i++) {
-            if (fishY[i] >= 0) {
-                drawPixelFish(g, fishX[i], fishY[i], fishWidth, fishHeight, FISH_ORANGE, fishFacingLeft[i]);
+            long overlaysStart = System.nanoTime();
+            drawOverlays(g2d);
+            if (debugOverlay.isVisible()) {
+                debugOverlay.draw(g2d, 10, 100);
+            }
+            overlayLayerTime.record(System.nanoTime() - overlaysStart);
+            if (!paintingDirtyRegions) {
+                paintTime.record(System.nanoTime() - start); // The dirty-region pass times the whole frame.
             }
         }
+    }
 
-        for (Fish2 fish2 : fish2Array) {
-            if (fish2.isVisible()) {
-                fish2.draw(g);
+    /**
+     * Records the time since the previous game loop frame and the bytes the game loop thread
+     * allocated during it (ticks and, with active rendering, the frame itself).
+     */
+    private void recordLoopMetrics() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            frameInterval.record(now - lastFrameNanos);
+        }
+        lastFrameNanos = now;
+        long allocated = metrics.currentThreadAllocatedBytes();
+        if (allocated >= 0 && lastAllocatedBytes >= 0) {
+            frameAllocation.record(allocated - lastAllocatedBytes);
+        }
+        lastAllocatedBytes = allocated;
+    }
+
+    /**
+     * Draws the overlay of the current state on top of the scene: the minigame, the shop
+     * or a toast message (over the shop when it was shown from there).
+     * Must be called while holding the world lock.
+     */
+    private void drawOverlays(Graphics2D g2d) {
+        GameState state = session.getState();
+        if (state == GameState.MINIGAME) {
+            session.getMinigame().draw(g2d, overlayX(FishingMinigame.WIDTH), overlayY(FishingMinigame.HEIGHT));
+            if (minigameHookedNanos != 0) {
+                // First frame showing the minigame after the catch.
+                minigameLatency.record(System.nanoTime() - minigameHookedNanos);
+                minigameHookedNanos = 0;
             }
         }
+        if (isShopVisible()) {
+            shop.draw(g2d, overlayX(Shop.WIDTH), overlayY(Shop.HEIGHT));
+        }
+        if (state == GameState.TOAST) {
+            session.getToast().draw(g2d, overlayX(Toast.WIDTH), toastY());
+        }
+    }
 
-        drawPixelUI(g2d);
-        drawLogo(g2d);
+    /**
+     * Returns true if the shop overlay is on screen, either on its own or under a toast it showed.
+     */
+    private boolean isShopVisible() {
+        GameState state = session.getState();
+        return state == GameState.SHOP
+                || (state == GameState.TOAST && session.getToastReturnState() == GameState.SHOP);
     }
 
     /**
-     * Renders a single, multi-part cloud shape.
+     * Returns the left edge of an overlay of the given width centered in the view.
      */
-    private void drawPixelCloud(Graphics2D g2d, int x, int y, int size) {
-        g2d.setColor(Color.WHITE);
-        int baseSize = 25 + (size * 10);
-        g2d.fillOval(x, y, baseSize, baseSize * 2/3);
-        g2d.fillOval(x + baseSize/3, y - baseSize/6, baseSize * 4/3, baseSize);
-        g2d.fillOval(x + baseSize * 2/3, y + baseSize/6, baseSize, baseSize * 2/3);
-        g2d.fillOval(x + baseSize/6, y + baseSize/3, baseSize * 5/4, baseSize/2);
-        g2d.fillOval(x - baseSize/6, y + baseSize/4, baseSize/2, baseSize/3);
-        g2d.fillOval(x + baseSize, y + baseSize/4, baseSize/2, baseSize/3);
+    private int overlayX(int width) {
+        return (viewWidth - width) / 2;
     }
 
     /**
-     * The main game loop logic, executed on each tick of the main timer.
-     * It handles object movement, collision detection, and game state updates.
-     * @param e The ActionEvent triggered by the timer.
+     * Returns the top edge of an overlay of the given height centered in the view.
      */
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (gamePaused) return;
+    private int overlayY(int height) {
+        return (viewHeight - height) / 2;
+    }
+
+    /**
+     * Returns the top edge of the toast, placed in the sky above the centered overlays.
+     */
+    private int toastY() {
+        return Math.max(0, overlayY(Shop.HEIGHT) - Toast.HEIGHT - 20);
+    }
 
-        boat.updateHook(getHeight());
+    /**
+     * Takes the fish count and money shown by the HUD in this frame from the player state.
+     * @return True if either value differs from the previous frame.
+     */
+    private boolean updateHudValues() {
+        int fishCaught = playerState.getFishCaught();
+        int money = playerState.getMoney();
+        boolean changed = fishCaught != hudFishCaught || money != hudMoney;
+        hudFishCaught = fishCaught;
+        hudMoney = money;
+        return changed;
+    }
+
+    /**
+     * Draws the whole scene, placing moving objects between their previous and current
+     * simulation positions. The camera follows the boat, and world objects outside the view
+     * are skipped, so the cost of a frame depends on what is on screen rather than on the size
+     * of the world. Must be called while holding the world lock.
+     * @param g2d The Graphics context to draw on.
+     * @param alpha Interpolation factor: 0 is the previous tick, 1 the current one.
+     */
+    private void renderScene(Graphics2D g2d, double alpha) {
+        Graphics g = g2d;
+        updateCamera(alpha);
 
-        Rectangle hookRect = new Rectangle(boat.getHookX() - 2, boat.getHookY(), 4, 10);
-        Rectangle boatRect = new Rectangle(boat.getBoatX(), boat.getBoatY(), boat.getBoatWidth(), boat.getBoatHeight());
+        // Disable anti-aliasing to maintain the crisp pixel art aesthetic.
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 
-        boolean caughtRedFish = false;
+        // Render all visual layers in order from back to front, timing each of them.
+        long end = drawBackground(g2d);
+        long start;
 
-        // Check for collision between the hook and regular fish.
-        for (int i = 0; i < fishCount; i++) {
-            Rectangle fishRect = new Rectangle(fishX[i], fishY[i], fishWidth, fishHeight);
-            if (hookRect.intersects(fishRect)) {
-                fishY[i] = -fishHeight;
-                timer.stop();
-                startFishingMinigame(false);
-                return;
-            }
+        // Moving objects are drawn in world coordinates, shifted by the camera.
+        g2d.translate(-cameraX, 0);
+        try {
+            start = end;
+            drawPixelBoat(g2d, lerp(boat.getPreviousBoatX(), boat.getBoatX(), alpha), boat.getBoatY(),
+                    boat.getBoatWidth(), boat.getBoatHeight());
+            end = System.nanoTime();
+            boatLayerTime.record(end - start);
+
+            start = end;
+            drawPixelHook(g, alpha);
+            end = System.nanoTime();
+            hookLayerTime.record(end - start);
+
+            start = end;
+            drawVisibleFish(g2d, alpha);
+            end = System.nanoTime();
+            fishLayerTime.record(end - start);
+        } finally {
+            g2d.translate(cameraX, 0);
         }
 
-        // Check for collision between the hook and special fish.
-        for (Fish2 fish2 : fish2Array) {
-            if (fish2.isVisible() && hookRect.intersects(fish2.getBounds())) {
-                fish2.remove();
-                timer.stop();
-                caughtRedFish = true;
-                break;
+        start = end;
+        drawPixelUI(g2d);
+        hudLayerTime.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Centers the camera on the boat, without showing anything past the edges of the world.
+     * Must be called while holding the world lock.
+     */
+    private void updateCamera(double alpha) {
+        int boatCenter = lerp(boat.getPreviousBoatX(), boat.getBoatX(), alpha) + boat.getBoatWidth() / 2;
+        cameraX = Math.max(0, Math.min(boatCenter - viewWidth / 2, world.getWidth() - viewWidth));
+    }
+
+    /**
+     * Finds the fish in view with a query of the world's spatial grid. The grid keeps fish by
+     * their top-left corner, so the view is widened by the largest fish to the left and up, plus the
+     * distance a fish can move in one tick.
+     * @return The number of fish indices in {@link World#getFishQueryResult()}.
+     */
+    private int queryVisibleFish() {
+        FishPool fish = world.getFish();
+        return world.queryFish(cameraX - fish.getMaxWidth() - CULL_MARGIN, -fish.getMaxHeight(),
+                cameraX + viewWidth + CULL_MARGIN, viewHeight);
+    }
+
+    /**
+     * Draws the background layers. Sky and water only change with height, so they come from one
+     * cached image the size of the view, rebuilt only when the view is resized. Clouds, waves and the
+     * shop belong to the world and scroll with the camera; they are blitted from pre-rendered sprites,
+     * and only those in view. The logo stays in the top-left corner of the screen.
+     * Each layer is timed separately; the cached image is blitted in two parts for the sky and the water.
+     * @return The time the last layer finished, from {@link System#nanoTime()}.
+     */
+    private long drawBackground(Graphics2D g2d) {
+        long start = System.nanoTime();
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            return start;
+        }
+        GraphicsConfiguration config = g2d.getDeviceConfiguration();
+        if (backgroundCache == null
+                || backgroundCache.getWidth() != viewWidth || backgroundCache.getHeight() != viewHeight) {
+            backgroundCache = config.createCompatibleImage(viewWidth, viewHeight, Transparency.OPAQUE);
+            Graphics2D cacheGraphics = backgroundCache.createGraphics();
+            try {
+                cacheGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                drawStaticLayers(cacheGraphics);
+            } finally {
+                cacheGraphics.dispose();
             }
+            waveStrip = null; // Rebuilt for the new view width.
         }
+        int surface = Math.max(0, Math.min(waterLevel, viewHeight));
+        g2d.drawImage(backgroundCache, 0, 0, viewWidth, surface, 0, 0, viewWidth, surface, null);
+        long end = System.nanoTime();
+        skyLayerTime.record(end - start);
+
+        start = end;
+        g2d.drawImage(backgroundCache, 0, surface, viewWidth, viewHeight, 0, surface, viewWidth, viewHeight, null);
+        g2d.translate(-cameraX, 0);
+        try {
+            drawWaves(g2d, config);
+            end = System.nanoTime();
+            waterLayerTime.record(end - start);
 
-        if (caughtRedFish) {
-            startFishingMinigame(true);
-            return;
+            start = end;
+            drawClouds(g2d, config);
+            end = System.nanoTime();
+            cloudsLayerTime.record(end - start);
+
+            start = end;
+            drawShop(g2d, config);
+        } finally {
+            g2d.translate(cameraX, 0);
         }
+        end = System.nanoTime();
+        shopLayerTime.record(end - start);
 
-        // Update fish positions and handle bouncing off screen edges.
-        for (int i = 0; i < fishCount; i++) {
-            if (fishY[i] >= 0) {
-                fishX[i] += fishSpeed[i];
-                if (fishX[i] <= 0) {
-                    fishX[i] = 0; // Prevent fish from going off-screen left.
-                    fishSpeed[i] = -fishSpeed[i];
-                } else if (fishX[i] >= screenWidth - fishWidth) {
-                    fishX[i] = screenWidth - fishWidth; // Prevent fish from going off-screen right.
-                    fishSpeed[i] = -fishSpeed[i];
-                }
-                if (random.nextInt(100) < 5) { // Occasionally, fish change direction randomly.
-                    fishSpeed[i] = random.nextBoolean() ? 2 : -2;
-                }
-                fishFacingLeft[i] = fishSpeed[i] < 0; // Zaktualizuj kierunek na podstawie prędkości
-            }
+        start = end;
+        if (logoSprite == null) {
+            // The panel spans (10, 10) to (610, 90), border included.
+            logoSprite = renderSprite(config, 611, 91, this::drawLogo);
         }
+        g2d.drawImage(logoSprite, 0, 0, null);
+        end = System.nanoTime();
+        logoLayerTime.record(end - start);
+        return end;
+    }
+
+    /**
+     * Renders the layers that look the same wherever the camera is: the sky and the water gradient.
+     */
+    void drawStaticLayers(Graphics2D g2d) {
+        g2d.setColor(SKY_BLUE);
+        g2d.fillRect(0, 0, viewWidth, viewHeight);
+        drawPixelWater(g2d);
+    }
 
-        // Move special fish.
-        for (Fish2 fish2 : fish2Array) {
-            if (fish2.isVisible()) {
-                fish2.move();
+    /**
+     * Draws the clouds in view, in world coordinates, from one sprite per cloud size.
+     */
+    private void drawClouds(Graphics2D g2d, GraphicsConfiguration config) {
+        for (int i = 0; i < cloudX.length; i++) {
+            int size = cloudSize[i];
+            int baseSize = cloudBaseSize(size);
+            // The outer ovals reach baseSize / 6 to the left of and above the cloud position.
+            int offset = baseSize / 6 + 1;
+            BufferedImage sprite = cloudSprites[size - 1];
+            if (sprite == null) {
+                sprite = renderSprite(config, 2 * baseSize, baseSize + 2 * offset,
+                        g -> drawPixelCloud(g, offset, offset, size));
+                cloudSprites[size - 1] = sprite;
+            }
+            int x = cloudX[i] - offset;
+            if (x < cameraX + viewWidth && x + sprite.getWidth() > cameraX) {
+                g2d.drawImage(sprite, x, cloudY[i] - offset, null);
             }
         }
+    }
 
-        // Check if the player is trying to enter the shop.
-        if (shopArea.intersects(boatRect) && !shopOpen && upArrowPressed) {
-            shop.setVisible(true);
-            shopOpen = true;
-            upArrowPressed = false;
-            shop.updateFishCount(fishCaught);
+    /**
+     * Draws the surface waves across the view, in world coordinates. The pattern repeats every
+     * {@value #WAVE_PERIOD} px, so one strip placed at the last period boundary left of the view covers it.
+     */
+    private void drawWaves(Graphics2D g2d, GraphicsConfiguration config) {
+        if (waveStrip == null) {
+            int width = viewWidth + 2 * WAVE_PERIOD;
+            waveStrip = renderSprite(config, width, 3, g -> drawPixelWaves(g, width, 0));
         }
-
-        repaint();
+        g2d.drawImage(waveStrip, cameraX - Math.floorMod(cameraX, WAVE_PERIOD), waterLevel, null);
     }
 
     /**
-     * Pauses the main game and launches the fishing minigame in a new window.
-     * @param isRedFish True if the caught fish is a special 'red' fish, affecting the minigame.
+     * Draws the shop building, in world coordinates, when it is in view.
      */
-    private void startFishingMinigame(boolean isRedFish) {
-        gamePaused = true;
+    private void drawShop(Graphics2D g2d, GraphicsConfiguration config) {
+        // The roof overhangs the walls by 10 px on each side and rises 20 px above them.
+        int left = shopArea.x - 10;
+        int top = shopArea.y - 20;
+        int width = shopArea.width + 21;
+        if (left >= cameraX + viewWidth || left + width <= cameraX) {
+            return;
+        }
+        if (shopSprite == null) {
+            shopSprite = renderSprite(config, width, shopArea.height + 21, g -> {
+                g.translate(-left, -top);
+                drawPixelShop(g);
+            });
+        }
+        g2d.drawImage(shopSprite, left, top, null);
+    }
 
-        for (int i = 0; i < fishCount; i++) {
-            Rectangle hookRect = new Rectangle(boat.getHookX() - 2, boat.getHookY(), 4, 10);
-            Rectangle fishRect = new Rectangle(fishX[i], fishY[i], fishWidth, fishHeight);
-            if (hookRect.intersects(fishRect)) {
-                fishY[i] = -fishHeight;
-                break;
-            }
+    /**
+     * Renders a transparent sprite compatible with the target surface.
+     */
+    private static BufferedImage renderSprite(GraphicsConfiguration config, int width, int height,
+                                              Consumer<Graphics2D> painter) {
+        BufferedImage sprite = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = sprite.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            painter.accept(g);
+        } finally {
+            g.dispose();
         }
+        return sprite;
+    }
+
+    /**
+     * Linearly interpolates between two positions.
+     */
+    private static int lerp(int previous, int current, double alpha) {
+        return previous + (int) Math.round((current - previous) * alpha);
+    }
+
+    /**
+     * Returns the base size in pixels of a cloud of the given size (1 to 3).
+     */
+    private static int cloudBaseSize(int size) {
+        return 25 + (size * 10);
+    }
+
+    /**
+     * Renders a single, multi-part cloud shape.
+     */
+    private void drawPixelCloud(Graphics2D g2d, int x, int y, int size) {
+        g2d.setColor(Color.WHITE);
+        int baseSize = cloudBaseSize(size);
+        g2d.fillOval(x, y, baseSize, baseSize * 2/3);
+        g2d.fillOval(x + baseSize/3, y - baseSize/6, baseSize * 4/3, baseSize);
+        g2d.fillOval(x + baseSize * 2/3, y + baseSize/6, baseSize, baseSize * 2/3);
+        g2d.fillOval(x + baseSize/6, y + baseSize/3, baseSize * 5/4, baseSize/2);
+        g2d.fillOval(x - baseSize/6, y + baseSize/4, baseSize/2, baseSize/3);
+        g2d.fillOval(x + baseSize, y + baseSize/4, baseSize/2, baseSize/3);
+    }
 
-        for (Fish2 fish2 : fish2Array) {
-            if (fish2.isVisible() && new Rectangle(boat.getHookX() - 2, boat.getHookY(), 4, 10).intersects(fish2.getBounds())) {
-                fish2.remove();
+    /**
+     * A single fixed simulation step, executed by the game loop thread.
+     * The keyboard state is polled here, once per step, and turned into the command mask of the
+     * headless {@link GameSession}, which decides what the commands do in the current game state.
+     */
+    void tick() {
+        long tickNanos = System.nanoTime();
+        synchronized (world) {
+            if (input.wasPressed(KeyEvent.VK_F3)) {
+                debugOverlay.toggle();
+            } else if (input.wasPressed(KeyEvent.VK_F4)) {
+                exportMetrics();
+            }
+            if (viewHeight > 0) {
+                session.setHookFloor(viewHeight);
+            }
+            boolean wasInMinigame = session.getState() == GameState.MINIGAME;
+            session.tick(pollCommands());
+            if (!wasInMinigame && session.getState() == GameState.MINIGAME) {
+                minigameHookedNanos = tickNanos; // For the hook-to-first-frame latency.
             }
+            pendingCommands = 0;
+            input.endTick();
+            tickTime.record(System.nanoTime() - tickNanos);
         }
+    }
 
-        if (!fishSpawnTimer.isRunning()) {
-            fishSpawnTimer.restart();
-        }
+    /**
+     * Builds the command mask of this step from the keyboard state and the pending mouse commands.
+     * Held keys accelerate the boat every tick; every other key acts once per press.
+     * Must be called while holding the world lock.
+     */
+    private int pollCommands() {
+        int commands = pendingCommands;
+        if (input.isHeld(KeyEvent.VK_LEFT)) commands |= GameSession.LEFT;
+        if (input.isHeld(KeyEvent.VK_RIGHT)) commands |= GameSession.RIGHT;
+        if (input.wasPressed(KeyEvent.VK_SPACE)) commands |= GameSession.SPACE;
+        if (input.isHeld(KeyEvent.VK_UP)) commands |= GameSession.UP;
+        if (input.wasPressed(KeyEvent.VK_ESCAPE)) commands |= GameSession.ESCAPE;
+        if (input.wasPressed(KeyEvent.VK_DOWN)) commands |= GameSession.DOWN;
+        if (input.wasPressed(KeyEvent.VK_S)) commands |= GameSession.SELL;
+        if (input.wasPressed(KeyEvent.VK_H)) commands |= GameSession.UPGRADE_HOOK;
+        if (input.wasPressed(KeyEvent.VK_B)) commands |= GameSession.UPGRADE_BOAT;
+        if (input.wasPressed(KeyEvent.VK_R)) commands |= GameSession.RESET_UPGRADES;
+        if (input.anyPressed()) commands |= GameSession.DISMISS; // Any key closes a toast.
+        return commands;
+    }
 
-        SwingUtilities.invokeLater(() -> {
-            JFrame fishingFrame = new JFrame("Fishing Minigame");
-            FishingMinigame fishingMinigame = new FishingMinigame(this, fishingFrame, isRedFish);
-            fishingFrame.add(fishingMinigame);
-            fishingFrame.setSize(250, 500);
-            fishingFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-            fishingFrame.setVisible(true);
-            fishingMinigame.requestFocusInWindow();
-        });
+    /**
+     * Writes all histograms to the CSV file given by -Dfishing.metricsFile (metrics.csv by default)
+     * on a background thread, so the export does not stall the game loop. The confirmation goes to
+     * the console, since a toast would pause the game outside the recorded session input.
+     */
+    private void exportMetrics() {
+        Path path = Paths.get(System.getProperty("fishing.metricsFile", "metrics.csv"));
+        Thread exporter = new Thread(() -> {
+            metrics.writeCsv(path);
+            System.out.println("Metrics written to " + path.toAbsolutePath());
+        }, "metrics-export");
+        exporter.setDaemon(false); // The file must be complete even if the game is closed meanwhile.
+        exporter.start();
     }
 
     /**
-     * Resumes the game after the fishing minigame or shop is closed.
-     * Reloads game state from files and restarts necessary timers.
+     * Starts the fishing minigame overlay, bypassing the world. Used by benchmarks.
+     * @param isRedFish True if the caught fish is a special 'red' fish, affecting the minigame.
+     * @param hookedNanos When the fish was hooked, for the hook-to-first-frame latency.
      */
-    public void resumeGame() {
-        gamePaused = false;
-        boat.resetHook();
-        loadFishCaughtFromFile();
-        loadMoneyFromFile();
-        loadBoatUpgradeLevel();
-        timer.start();
-        fishSpawnTimer.restart();
-        repaint();
-        shopOpen = false;
+    void enterMinigame(boolean isRedFish, long hookedNanos) {
+        synchronized (world) {
+            session.enterMinigame(isRedFish);
+            minigameHookedNanos = hookedNanos;
+        }
     }
 
     /**
-     * Resets the hook to its initial position.
+     * Shows a message on top of the game. The game returns to the current state once the
+     * toast times out or the player presses a key or clicks.
+     * @param message The message to show.
      */
-    public void resetHook() {
-        boat.resetHook();
+    public void showToast(String message) {
+        synchronized (world) {
+            session.showToast(message);
+        }
     }
 
     /**
-     * Moves the boat away from the shop area to prevent re-entering immediately.
+     * Returns the current game state.
+     * @return The state deciding what is simulated and drawn.
      */
-    public void moveBoatAwayFromShop() {
-        boat.setBoatX(shopArea.width + 5);
-        repaint();
-        shopOpen = false;
+    public GameState getState() {
+        synchronized (world) {
+            return session.getState();
+        }
     }
 
     /**
-     * Handles key press events for controlling the boat and game actions.
+     * Handles a mouse click on the game surface: buttons of the shop overlay, or dismissing a toast.
+     * The click becomes a command of the next tick, so it is recorded with the session input.
+     */
+    private void overlayClicked(int x, int y) {
+        synchronized (world) {
+            GameState state = session.getState();
+            if (state == GameState.TOAST) {
+                pendingCommands |= GameSession.DISMISS;
+            } else if (state == GameState.SHOP) {
+                pendingCommands |= shop.commandAt(x - overlayX(Shop.WIDTH), y - overlayY(Shop.HEIGHT));
+            }
+        }
+    }
+
+    /**
+     * Records a key press; the next tick decides what it does in the current game state.
      * @param e The KeyEvent generated by the key press.
      */
     @Override
     public void keyPressed(KeyEvent e) {
-        int keyCode = e.getKeyCode();
-        if (keyCode == KeyEvent.VK_LEFT) {
-            boat.moveLeft();
-        } else if (keyCode == KeyEvent.VK_RIGHT) {
-            boat.moveRight();
-        } else if (keyCode == KeyEvent.VK_SPACE) {
-            if (boat.isHookDropped()) {
-                boat.resetHook();  // Retract the hook if it's already down.
-            } else {
-                boat.dropHook();   // Drop the hook.
-            }
-        } else if (keyCode == KeyEvent.VK_UP) {
-            upArrowPressed = true; // Flag that the up arrow was pressed (for entering the shop).
+        synchronized (world) {
+            input.keyPressed(e.getKeyCode(), System.nanoTime());
         }
-        repaint();
     }
 
+    /**
+     * Records a key release, so held keys stop acting on the next tick.
+     * @param e The KeyEvent generated by the key release.
+     */
     @Override
-    public void keyReleased(KeyEvent e) {} // Not used.
+    public void keyReleased(KeyEvent e) {
+        synchronized (world) {
+            input.keyReleased(e.getKeyCode(), System.nanoTime());
+        }
+    }
+
     @Override
     public void keyTyped(KeyEvent e) {} // Not used.
 
@@ -651,56 +1000,133 @@ public class BoatGame extends JPanel implements ActionListener, KeyListener {
             frame.setSize(Toolkit.getDefaultToolkit().getScreenSize());
             frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
             BoatGame game = new BoatGame(frame);
-            frame.add(game);
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            frame.setVisible(true);
-            game.requestFocusInWindow();
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    game.shutdown(); // Pending saves must reach the disk before the JVM exits.
+                }
+            });
+
+            // Active rendering with page flipping is the default; -Dfishing.render=swing
+            // falls back to the passive paintComponent path.
+            if ("swing".equals(System.getProperty("fishing.render"))) {
+                frame.add(game);
+                frame.setVisible(true);
+                game.requestFocusInWindow();
+            } else {
+                GameCanvas canvas = new GameCanvas(game);
+                canvas.addKeyListener(game);
+                canvas.addMouseListener(game.overlayMouse);
+                canvas.addFocusListener(game.inputFocus);
+                frame.add(canvas);
+                frame.setVisible(true);
+                game.activeCanvas = canvas;
+                canvas.requestFocusInWindow();
+            }
         });
     }
 
     /**
-     * Updates the count of caught fish, saves it to a file, and repaints the screen.
-     * @param fishCaught The new total number of caught fish.
+     * Returns the player state holding money, caught fish and upgrades, shared by the whole game.
+     * @return The game's PlayerState instance.
      */
-    public void updateFishCaught(int fishCaught) {
-        this.fishCaught = fishCaught;
-        saveFishCaughtToFile();
-        repaint();
+    public PlayerState getPlayerState() {
+        return playerState;
     }
 
     /**
-     * Returns the main boat object.
-     * @return The game's Boat instance.
+     * Returns the background service that writes the save file.
+     * @return The game's PersistenceService instance.
      */
-    public Boat getBoat() {
-        return boat;
+    public PersistenceService getPersistence() {
+        return persistence;
     }
 
     /**
-     * Loads the boat's current upgrade level from "boat_upgrade.txt".
-     * Defaults to level 0 if the file is not found or invalid.
+     * Called after a frame has been shown; measures how long the input it reflects took to appear.
      */
-    private void loadBoatUpgradeLevel() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(boatUpgradeFile))) {
-            String line = reader.readLine();
-            if (line != null) {
-                boat.setBoatUpgradeLevel(Integer.parseInt(line.trim()));
-            } else {
-                boat.setBoatUpgradeLevel(0);
+    void frameShown() {
+        synchronized (world) {
+            input.frameShown(System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns the registry of performance histograms recorded by the game.
+     * @return The game's Metrics instance.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the time from a key event to the first frame showing its effect.
+     * @return The input-to-frame latency meter.
+     */
+    public LatencyMeter getInputLatency() {
+        return input.getLatency();
+    }
+
+    /**
+     * Returns the time from hooking a fish to the first painted frame of the minigame.
+     * @return The hook-to-minigame latency meter.
+     */
+    public LatencyMeter getMinigameLatency() {
+        return minigameLatency;
+    }
+
+    /**
+     * Finishes the session recording, commits pending transactions and writes a final snapshot.
+     * With -Dfishing.metricsFile set, it also reports how long commits, saves, minigame starts and input
+     * took, prints every histogram and writes them to the CSV file.
+     * Called when the main window closes.
+     */
+    private void shutdown() {
+        close();
+        if (System.getProperty("fishing.metricsFile") != null) {
+            if (journal.getBatchCount() > 0) {
+                System.out.println(journal.getLatency() + " (" + journal.getDurableSeq() + " transactions in "
+                        + journal.getBatchCount() + " commits)");
+            }
+            if (persistence.getWriteCount() > 0) {
+                System.out.println(persistence.getLatency() + " (" + persistence.getRequestCount()
+                        + " changes in " + persistence.getWriteCount() + " writes)");
+            }
+            if (minigameLatency.getCount() > 0) {
+                System.out.println(minigameLatency);
             }
-        } catch (IOException | NumberFormatException e) {
-            boat.setBoatUpgradeLevel(0);
+            if (input.getLatency().getCount() > 0) {
+                System.out.println(input.getLatency());
+            }
+            for (Histogram histogram : metrics.getHistograms()) {
+                if (histogram.getCount() > 0) {
+                    System.out.println(Metrics.summary(histogram));
+                }
+            }
+            metrics.writeCsv(Paths.get(System.getProperty("fishing.metricsFile")));
         }
     }
 
     /**
-     * Saves the boat's current upgrade level to "boat_upgrade.txt".
+     * Stops the game loop, finishes the session recording, commits pending transactions, writes a final
+     * snapshot and stops listening for GC pauses. Used on exit and by benchmarks that create many games.
      */
-    public void saveBoatUpgradeLevel() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(boatUpgradeFile))) {
-            writer.write(String.valueOf(boat.getBoatUpgradeLevel()));
-        } catch (IOException e) {
-            e.printStackTrace();
+    void close() {
+        gameLoop.stop();
+        synchronized (world) {
+            session.stopRecording();
         }
+        journal.close();
+        persistence.stop();
+        metrics.uninstallGcListener();
+    }
+
+    /**
+     * Returns the main boat object.
+     * @return The game's Boat instance.
+     */
+    public Boat getBoat() {
+        return boat;
     }
-}
\ No newline at end of file
+}
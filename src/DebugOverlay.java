@@ -0,0 +1,85 @@
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Nakładka diagnostyczna (przełączana klawiszem F3) z podsumowaniem histogramów
+ * {@link Metrics}: liczba próbek, p50, p99 i maksimum każdej mierzonej wielkości.
+ * Teksty są składane najwyżej kilka razy na sekundę, więc nakładka jest czytelna
+ * i sama w niewielkim stopniu wpływa na mierzone czasy.
+ */
+public class DebugOverlay {
+    /** Szerokość nakładki. */
+    public static final int WIDTH = 560;
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+    private static final int LINE_HEIGHT = 14;
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Color PANEL_COLOR = new Color(0, 0, 0, 170);
+
+    private final Metrics metrics;
+    private boolean visible = false;
+    private String[] lines = new String[0];
+    private long lastRefreshNanos = 0;
+
+    /**
+     * Tworzy nakładkę dla rejestru metryk.
+     * @param metrics Rejestr, którego histogramy są wyświetlane.
+     */
+    public DebugOverlay(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Pokazuje lub ukrywa nakładkę.
+     */
+    public void toggle() {
+        visible = !visible;
+        lastRefreshNanos = 0; // Po pokazaniu teksty są od razu aktualne
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Zwraca wysokość nakładki dla bieżącej liczby wierszy.
+     */
+    public int getHeight() {
+        return (lines.length + 1) * LINE_HEIGHT + 6;
+    }
+
+    /**
+     * Rysuje nakładkę, odświeżając jej teksty co {@value #REFRESH_NANOS} ns.
+     * @param g Kontekst graficzny klatki.
+     * @param x Lewa krawędź nakładki.
+     * @param y Górna krawędź nakładki.
+     */
+    public void draw(Graphics2D g, int x, int y) {
+        long now = System.nanoTime();
+        if (lastRefreshNanos == 0 || now - lastRefreshNanos >= REFRESH_NANOS) {
+            refresh();
+            lastRefreshNanos = now;
+        }
+        g.setColor(PANEL_COLOR);
+        g.fillRect(x, y, WIDTH, getHeight());
+        g.setFont(TEXT_FONT);
+        g.setColor(Color.YELLOW);
+        g.drawString("F3: ukryj  F4: eksport CSV", x + 6, y + LINE_HEIGHT);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], x + 6, y + (i + 2) * LINE_HEIGHT);
+        }
+    }
+
+    /**
+     * Składa teksty podsumowań wszystkich histogramów.
+     */
+    private void refresh() {
+        List<Histogram> histograms = metrics.getHistograms();
+        String[] refreshed = new String[histograms.size()];
+        for (int i = 0; i < refreshed.length; i++) {
+            refreshed[i] = Metrics.summary(histograms.get(i));
+        }
+        lines = refreshed;
+    }
+}
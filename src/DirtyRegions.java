@@ -0,0 +1,199 @@
+import java.util.Arrays;
+
+/**
+ * Śledzenie "brudnych" obszarów ekranu, które trzeba odświeżyć w kolejnej klatce.
+ * Dla każdego poruszającego się obiektu zapisywane są jego granice z poprzedniej
+ * i z bieżącej klatki; oba zbiory są następnie łączone w niewielką liczbę
+ * prostokątów. Gdy obszarów jest zbyt wiele albo pokrywają większość ekranu,
+ * opłaca się odświeżyć całość - wtedy {@link #computeRegions(int, int)} zwraca -1.
+ * Prostokąty przechowywane są w tablicach prymitywnych jako czwórki (x, y, szerokość, wysokość).
+ */
+public class DirtyRegions {
+    /** Powyżej tej liczby obiektów w klatce taniej jest odświeżyć cały ekran. */
+    private static final int MAX_TRACKED = 32;
+    /**
+     * Powyżej tej łącznej liczby granic z obu klatek scalanie kosztowałoby więcej niż odświeżenie
+     * całego ekranu (i zwykle i tak kończyłoby się pełnym odświeżeniem), więc jest pomijane.
+     */
+    private static final int MAX_MERGED = 48;
+    /** Docelowa maksymalna liczba prostokątów po scaleniu. */
+    private static final int MAX_REGIONS = 8;
+    /** Ułamek powierzchni ekranu, powyżej którego odświeżany jest cały ekran. */
+    private static final double FULL_REPAINT_COVERAGE = 0.5;
+
+    private int[] previous = new int[MAX_TRACKED * 4];
+    private int previousCount = 0;
+    private int[] current = new int[MAX_TRACKED * 4];
+    private int currentCount = 0;
+    private final int[] regions = new int[MAX_TRACKED * 8];
+    private int regionCount = 0;
+    private boolean overflow = false;
+    private boolean fullRepaint = true;
+
+    /**
+     * Zapisuje granice obiektu narysowanego w bieżącej klatce.
+     */
+    public void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (currentCount == MAX_TRACKED) {
+            overflow = true;
+            return;
+        }
+        int i = currentCount++ * 4;
+        current[i] = x;
+        current[i + 1] = y;
+        current[i + 2] = width;
+        current[i + 3] = height;
+    }
+
+    /**
+     * Wymusza odświeżenie całego ekranu w najbliższej klatce
+     * (np. po zmianie rozmiaru okna lub teleportacji obiektu poza śledzeniem).
+     */
+    public void invalidateAll() {
+        fullRepaint = true;
+    }
+
+    /**
+     * Łączy granice z poprzedniej i bieżącej klatki w listę prostokątów do odświeżenia.
+     * @param viewWidth Szerokość widoku.
+     * @param viewHeight Wysokość widoku.
+     * @return Liczba prostokątów dostępnych w {@link #getRegions()} lub -1, gdy trzeba odświeżyć cały widok.
+     */
+    public int computeRegions(int viewWidth, int viewHeight) {
+        if (fullRepaint || overflow || previousCount + currentCount > MAX_MERGED) {
+            return -1;
+        }
+        regionCount = 0;
+        for (int i = 0; i < previousCount * 4; i += 4) {
+            addRegion(previous[i], previous[i + 1], previous[i + 2], previous[i + 3], viewWidth, viewHeight);
+        }
+        for (int i = 0; i < currentCount * 4; i += 4) {
+            addRegion(current[i], current[i + 1], current[i + 2], current[i + 3], viewWidth, viewHeight);
+        }
+        mergeRegions();
+
+        long area = 0;
+        for (int i = 0; i < regionCount * 4; i += 4) {
+            area += (long) regions[i + 2] * regions[i + 3];
+        }
+        if (area > FULL_REPAINT_COVERAGE * viewWidth * viewHeight) {
+            return -1;
+        }
+        return regionCount;
+    }
+
+    /**
+     * Kończy klatkę: granice bieżącej klatki stają się granicami poprzedniej.
+     * Po przepełnieniu granice są niepełne, więc kolejna klatka odświeża cały ekran.
+     */
+    public void endFrame() {
+        int[] swap = previous;
+        previous = current;
+        current = swap;
+        previousCount = currentCount;
+        currentCount = 0;
+        fullRepaint = overflow;
+        overflow = false;
+    }
+
+    /**
+     * Zwraca prostokąty obliczone przez ostatnie wywołanie {@link #computeRegions(int, int)}.
+     */
+    public int[] getRegions() {
+        return regions;
+    }
+
+    /**
+     * Dodaje prostokąt przycięty do widoku (prostokąty całkowicie poza widokiem są pomijane).
+     */
+    private void addRegion(int x, int y, int width, int height, int viewWidth, int viewHeight) {
+        int minX = Math.max(0, x), minY = Math.max(0, y);
+        int maxX = Math.min(viewWidth, x + width), maxY = Math.min(viewHeight, y + height);
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+        int i = regionCount++ * 4;
+        regions[i] = minX;
+        regions[i + 1] = minY;
+        regions[i + 2] = maxX - minX;
+        regions[i + 3] = maxY - minY;
+    }
+
+    /**
+     * Scala nachodzące na siebie prostokąty, a następnie - dopóki jest ich za dużo -
+     * łączy parę, której suma dokłada najmniej dodatkowej powierzchni.
+     * Prostokątów jest najwyżej {@value #MAX_MERGED}, więc kwadratowe przeglądy par są tanie.
+     */
+    private void mergeRegions() {
+        for (int a = 0; a < regionCount; a++) {
+            // Po scaleniu prostokąt a urósł, więc jest ponownie porównywany z pozostałymi
+            int b = a + 1;
+            while (b < regionCount) {
+                if (overlaps(a, b)) {
+                    union(a, b);
+                    b = a + 1;
+                } else {
+                    b++;
+                }
+            }
+        }
+
+        while (regionCount > MAX_REGIONS) {
+            int bestA = 0, bestB = 1;
+            long bestCost = Long.MAX_VALUE;
+            for (int a = 0; a < regionCount; a++) {
+                for (int b = a + 1; b < regionCount; b++) {
+                    long cost = unionArea(a, b) - area(a) - area(b);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestA = a;
+                        bestB = b;
+                    }
+                }
+            }
+            union(bestA, bestB);
+        }
+    }
+
+    private boolean overlaps(int a, int b) {
+        int ia = a * 4, ib = b * 4;
+        return regions[ia] <= regions[ib] + regions[ib + 2] && regions[ib] <= regions[ia] + regions[ia + 2]
+                && regions[ia + 1] <= regions[ib + 1] + regions[ib + 3]
+                && regions[ib + 1] <= regions[ia + 1] + regions[ia + 3];
+    }
+
+    private long area(int a) {
+        return (long) regions[a * 4 + 2] * regions[a * 4 + 3];
+    }
+
+    private long unionArea(int a, int b) {
+        int ia = a * 4, ib = b * 4;
+        int minX = Math.min(regions[ia], regions[ib]);
+        int minY = Math.min(regions[ia + 1], regions[ib + 1]);
+        int maxX = Math.max(regions[ia] + regions[ia + 2], regions[ib] + regions[ib + 2]);
+        int maxY = Math.max(regions[ia + 1] + regions[ia + 3], regions[ib + 1] + regions[ib + 3]);
+        return (long) (maxX - minX) * (maxY - minY);
+    }
+
+    /**
+     * Zastępuje prostokąt {@code a} sumą prostokątów {@code a} i {@code b}, a {@code b} usuwa z listy.
+     */
+    private void union(int a, int b) {
+        int ia = a * 4, ib = b * 4;
+        int minX = Math.min(regions[ia], regions[ib]);
+        int minY = Math.min(regions[ia + 1], regions[ib + 1]);
+        int maxX = Math.max(regions[ia] + regions[ia + 2], regions[ib] + regions[ib + 2]);
+        int maxY = Math.max(regions[ia + 1] + regions[ia + 3], regions[ib + 1] + regions[ib + 3]);
+        regions[ia] = minX;
+        regions[ia + 1] = minY;
+        regions[ia + 2] = maxX - minX;
+        regions[ia + 3] = maxY - minY;
+
+        int last = --regionCount * 4;
+        System.arraycopy(regions, last, regions, ib, 4);
+        Arrays.fill(regions, last, last + 4, 0);
+    }
+}
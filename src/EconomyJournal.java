@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Dziennik transakcji ekonomicznych (złowienie, sprzedaż, ulepszenia, zwrot) dopisywany
+ * na końcu pliku. Każda transakcja to jeden rekord o stałym rozmiarze:
+ * <pre>
+ * 0  long seq     numer kolejny transakcji
+ * 8  int  type    {@link Type#ordinal()}
+ * 12 int  a       pierwszy argument (liczba ryb, koszt, kwota)
+ * 16 int  b       drugi argument (cena za rybę)
+ * 20 int  crc     CRC32 bajtów 0-19
+ * </pre>
+ * Rekordy trafiają najpierw do kolejki w pamięci; wątek zapisujący dopisuje wszystkie
+ * oczekujące rekordy naraz i wymusza ich zapis na dysk jednym {@code force} (group commit).
+ * Po starcie {@link #replay()} odtwarza transakcje nowsze niż ostatnia migawka
+ * ({@link SaveFile}), a co {@value #COMPACT_EVERY} rekordów dziennik jest kompaktowany:
+ * zapisywana jest nowa migawka stanu, po czym plik dziennika jest obcinany.
+ */
+public class EconomyJournal implements Runnable {
+
+    /**
+     * Rodzaje transakcji ekonomicznych.
+     */
+    public enum Type {
+        /** Złowienie ryb: a = liczba ryb. */
+        CATCH,
+        /** Sprzedaż ryb: a = liczba ryb, b = cena za rybę. */
+        SELL,
+        /** Ulepszenie haka: a = zapłacony koszt. */
+        UPGRADE_HOOK,
+        /** Ulepszenie łodzi: a = zapłacony koszt. */
+        UPGRADE_BOAT,
+        /** Reset ulepszeń ze zwrotem pieniędzy: a = zwrócona kwota. */
+        REFUND
+    }
+
+    /** Rozmiar rekordu w bajtach. */
+    public static final int RECORD_SIZE = 24;
+    /** Liczba zapisanych rekordów, po której dziennik jest kompaktowany do migawki. */
+    public static final int COMPACT_EVERY = 1024;
+
+    private static final Type[] TYPES = Type.values();
+
+    private final Path path;
+    private final SaveFile saveFile;
+    private final PlayerState state;
+    private final LatencyMeter latency = new LatencyMeter("journal commit");
+    private final CRC32 crc = new CRC32();
+    private final Object lock = new Object();
+
+    // Kolejka rekordów oczekujących na zapis (tablice prymitywne powiększane w razie potrzeby)
+    private long[] pendingSeq = new long[64];
+    private int[] pendingType = new int[64];
+    private int[] pendingA = new int[64];
+    private int[] pendingB = new int[64];
+    private long[] pendingNanos = new long[64];
+    private int pendingCount = 0;
+
+    private long batchOldestNanos; // Czas dodania najstarszego rekordu w zapisywanej partii
+    private long batchLastSeq; // Numer ostatniego rekordu w zapisywanej partii
+    private long durableSeq = 0;
+    private long batchCount = 0;
+    private int recordsSinceCompaction = 0;
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 64);
+    private FileChannel channel;
+    private boolean running = false;
+    private Thread thread;
+
+    /**
+     * Tworzy dziennik transakcji.
+     * @param path Ścieżka pliku dziennika.
+     * @param saveFile Plik migawki stanu, zapisywany podczas kompaktowania.
+     * @param state Stan gracza, na którym odtwarzane są transakcje.
+     */
+    public EconomyJournal(Path path, SaveFile saveFile, PlayerState state) {
+        this.path = path;
+        this.saveFile = saveFile;
+        this.state = state;
+    }
+
+    /**
+     * Odtwarza na stanie gracza transakcje nowsze niż wczytana migawka.
+     * Odczyt kończy się na pierwszym niepełnym lub uszkodzonym rekordzie (np. przerwany
+     * zapis podczas awarii) - taki ogon pliku jest obcinany.
+     * @return Liczba odtworzonych transakcji.
+     */
+    public int replay() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int replayed = 0;
+        long validBytes = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.allocate((int) in.size());
+            while (data.hasRemaining() && in.read(data) >= 0) {
+                // Cały dziennik jest czytany jednym ciągiem
+            }
+            data.flip();
+            long lastSeq = state.getLastSeq();
+            while (data.remaining() >= RECORD_SIZE) {
+                int offset = data.position();
+                if (data.getInt(offset + 20) != checksum(data, offset)) {
+                    break;
+                }
+                long seq = data.getLong(offset);
+                int type = data.getInt(offset + 8);
+                if (type < 0 || type >= TYPES.length) {
+                    break;
+                }
+                if (seq > lastSeq) {
+                    state.applyTransaction(seq, TYPES[type], data.getInt(offset + 12), data.getInt(offset + 16));
+                    lastSeq = seq;
+                    replayed++;
+                }
+                data.position(offset + RECORD_SIZE);
+                validBytes = data.position();
+            }
+            if (validBytes < in.size()) {
+                System.err.println("Obcięto uszkodzony koniec dziennika " + path + " ("
+                        + (in.size() - validBytes) + " B).");
+                in.truncate(validBytes);
+                in.force(true);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        durableSeq = state.getLastSeq();
+        recordsSinceCompaction = (int) (validBytes / RECORD_SIZE);
+        return replayed;
+    }
+
+    /**
+     * Otwiera plik dziennika do dopisywania i uruchamia wątek zapisujący.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            running = true;
+            thread = new Thread(this, "economy-journal");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Dodaje transakcję do kolejki zapisu. Nie wykonuje operacji dyskowych, więc może być
+     * wywoływana z wątku EDT; wywoływana przez {@link PlayerState} pod jego blokadą,
+     * dzięki czemu kolejność rekordów odpowiada kolejności transakcji.
+     */
+    void append(long seq, Type type, int a, int b) {
+        synchronized (lock) {
+            if (pendingCount == pendingSeq.length) {
+                int capacity = pendingSeq.length * 2;
+                pendingSeq = Arrays.copyOf(pendingSeq, capacity);
+                pendingType = Arrays.copyOf(pendingType, capacity);
+                pendingA = Arrays.copyOf(pendingA, capacity);
+                pendingB = Arrays.copyOf(pendingB, capacity);
+                pendingNanos = Arrays.copyOf(pendingNanos, capacity);
+            }
+            pendingSeq[pendingCount] = seq;
+            pendingType[pendingCount] = type.ordinal();
+            pendingA[pendingCount] = a;
+            pendingB[pendingCount] = b;
+            pendingNanos[pendingCount] = System.nanoTime();
+            pendingCount++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Czeka, aż transakcja o podanym numerze zostanie trwale zapisana na dysku.
+     * @param seq Numer transakcji.
+     * @param timeoutMillis Najdłuższy czas oczekiwania.
+     * @return True, jeśli transakcja jest już trwała.
+     */
+    public boolean awaitDurable(long seq, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (durableSeq < seq) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !running) {
+                    return durableSeq >= seq;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            int count;
+            synchronized (lock) {
+                try {
+                    while (running && pendingCount == 0) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (!running && pendingCount == 0) {
+                    return;
+                }
+                count = encodePending();
+            }
+            try {
+                commit(count);
+            } catch (RuntimeException e) {
+                // Błąd pojedynczego zapisu nie może zatrzymać wątku dziennika
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Przenosi wszystkie oczekujące rekordy do bufora zapisu. Wywoływane pod blokadą kolejki.
+     * @return Liczba rekordów w buforze.
+     */
+    private int encodePending() {
+        int count = pendingCount;
+        if (buffer.capacity() < count * RECORD_SIZE) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(count * RECORD_SIZE) * 2);
+        }
+        buffer.clear();
+        for (int i = 0; i < count; i++) {
+            int offset = buffer.position();
+            buffer.putLong(pendingSeq[i]).putInt(pendingType[i]).putInt(pendingA[i]).putInt(pendingB[i]);
+            buffer.putInt(checksum(buffer, offset));
+        }
+        buffer.flip();
+        batchOldestNanos = pendingNanos[0]; // Do pomiaru opóźnienia zatwierdzenia partii
+        batchLastSeq = pendingSeq[count - 1];
+        pendingCount = 0;
+        return count;
+    }
+
+    /**
+     * Dopisuje przygotowaną partię rekordów i wymusza jej zapis na dysk jednym wywołaniem.
+     */
+    private void commit(int count) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        latency.record(System.nanoTime() - batchOldestNanos);
+        synchronized (lock) {
+            durableSeq = batchLastSeq;
+            batchCount++;
+            lock.notifyAll();
+        }
+        recordsSinceCompaction += count;
+        if (recordsSinceCompaction >= COMPACT_EVERY) {
+            compact();
+        }
+    }
+
+    /**
+     * Zapisuje migawkę stanu wraz z numerem ostatniej transakcji, a następnie obcina dziennik.
+     * Wszystkie rekordy w pliku mają numery nie większe niż numer zapisany w migawce
+     * (rekordy dodane w międzyczasie czekają jeszcze w kolejce), więc obcięcie niczego nie gubi.
+     * Wywoływane wyłącznie z wątku dziennika lub po jego zatrzymaniu.
+     */
+    private void compact() {
+        saveFile.save(state);
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        recordsSinceCompaction = 0;
+    }
+
+    /**
+     * Zapisuje zaległe rekordy, kompaktuje dziennik do migawki i zamyka plik.
+     * Wywoływane przy zamykaniu gry.
+     */
+    public void close() {
+        Thread writer;
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            writer = thread;
+            thread = null;
+            lock.notifyAll();
+        }
+        if (writer != null) {
+            try {
+                writer.join(); // Wątek kończy pracę dopiero po zapisaniu całej kolejki
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        compact();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Liczy sumę kontrolną pierwszych 20 bajtów rekordu zaczynającego się od podanej pozycji.
+     */
+    private int checksum(ByteBuffer data, int offset) {
+        crc.reset();
+        for (int i = offset; i < offset + RECORD_SIZE - 4; i++) {
+            crc.update(data.get(i));
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Zwraca pomiar czasu od dodania transakcji do jej trwałego zapisu (dla najstarszego rekordu partii).
+     */
+    public LatencyMeter getLatency() {
+        return latency;
+    }
+
+    /**
+     * Zwraca liczbę partii zapisanych na dysk (każda to jedno wywołanie {@code force}).
+     */
+    public long getBatchCount() {
+        synchronized (lock) {
+            return batchCount;
+        }
+    }
+
+    /**
+     * Zwraca numer ostatniej transakcji trwale zapisanej na dysku.
+     */
+    public long getDurableSeq() {
+        synchronized (lock) {
+            return durableSeq;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * System ruchu wszystkich ryb z puli {@link FishPool}, wykonywany równolegle na {@link ForkJoinPool}.
+ * Prędkość, szansa zmiany kierunku i rozmiar ryby pochodzą z opisu jej gatunku ({@link FishSpecies}),
+ * więc jedna pętla porusza wszystkie gatunki.
+ * Ryby są dzielone na porcje o stałym rozmiarze {@value #CHUNK_SIZE}, a każda porcja
+ * ma własny strumień {@link SplittableRandom} z {@link RandomStreams} świata. Porcja zawsze
+ * obejmuje te same indeksy i zużywa liczby tylko ze swojego generatora, więc wynik kroku
+ * zależy wyłącznie od ziarna - nie od liczby rdzeni ani od tego, który wątek wykonał porcję.
+ *
+ * <p>Poniżej {@value #PARALLEL_THRESHOLD} ryb wszystkie porcje wykonuje wątek wywołujący.
+ * Powyżej porcje pobierają ze wspólnego licznika zarówno wątek wywołujący, jak i zadania
+ * pomocnicze puli. Zadania są tworzone raz i ponownie wysyłane po zakończeniu, a wątek
+ * wywołujący czeka na ostatnie porcje bez blokowania, więc krok nie alokuje pamięci.
+ * Metoda {@link #move(int, int)} przesuwa tylko pozycje i prędkości - indeks przestrzenny
+ * aktualizuje potem sekwencyjnie {@link World}.
+ */
+public class FishMover {
+    /** Liczba ryb w jednej porcji. */
+    public static final int CHUNK_SIZE = 4096;
+    /** Od tej liczby ryb porcje są wykonywane równolegle. */
+    public static final int PARALLEL_THRESHOLD = 2 * CHUNK_SIZE;
+
+    private final FishPool fish;
+    private final ForkJoinPool pool;
+    private final RandomStreams randomStreams; // Źródło generatorów kolejnych porcji
+    // Dane gatunków indeksowane numerem gatunku, odczytywane w pętli ruchu
+    private final int[] speciesSpeed;
+    private final int[] speciesTurnChance;
+    private final int[] speciesWidth;
+    private final int[] speciesMaxX;
+    private SplittableRandom[] chunkRandoms = new SplittableRandom[0];
+    private final Helper[] helpers;
+
+    // Starsze 32 bity: liczba porcji bieżącego kroku, młodsze: następna wolna porcja.
+    // Liczba porcji jest pobierana razem z numerem porcji, więc zadanie spóźnione z poprzedniego
+    // kroku nigdy nie wykona porcji, której w danym kroku nie ma.
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private int fishCount;
+
+    /**
+     * Tworzy obiekt poruszający ryby z puli.
+     * @param fish Pula zwykłych ryb.
+     * @param randomStreams Źródło strumieni, z którego pochodzą generatory porcji.
+     * @param pool Pula wątków wykonująca porcje równolegle.
+     */
+    public FishMover(FishPool fish, RandomStreams randomStreams, ForkJoinPool pool) {
+        this.fish = fish;
+        this.pool = pool;
+        this.randomStreams = randomStreams;
+        int speciesCount = fish.getSpeciesCount();
+        speciesSpeed = new int[speciesCount];
+        speciesTurnChance = new int[speciesCount];
+        speciesWidth = new int[speciesCount];
+        speciesMaxX = new int[speciesCount];
+        for (int s = 0; s < speciesCount; s++) {
+            FishSpecies species = fish.getSpeciesInfo(s);
+            speciesSpeed[s] = species.getSpeed();
+            speciesTurnChance[s] = species.getTurnChancePercent();
+            speciesWidth[s] = species.getWidth();
+        }
+        this.helpers = new Helper[Math.max(0, pool.getParallelism())];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Helper();
+        }
+    }
+
+    /**
+     * Przesuwa o krok wszystkie ryby z zakresu {@code [0, fishCount)}, odbijając je od krawędzi
+     * świata i od czasu do czasu losowo zmieniając ich kierunek.
+     * @param fishCount Liczba żywych ryb w puli.
+     * @param worldWidth Szerokość świata; prawa krawędź ryby nie może jej przekroczyć.
+     */
+    public void move(int fishCount, int worldWidth) {
+        int chunkCount = (fishCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ensureChunkRandoms(chunkCount);
+        this.fishCount = fishCount;
+        for (int s = 0; s < speciesMaxX.length; s++) {
+            speciesMaxX[s] = worldWidth - speciesWidth[s];
+        }
+        completedChunks.set(0);
+        cursor.set((long) chunkCount << 32); // Zapis ulotny publikuje powyższe pola zadaniom pomocniczym
+
+        if (fishCount >= PARALLEL_THRESHOLD) {
+            for (int i = 0; i < helpers.length && i < chunkCount - 1; i++) {
+                Helper helper = helpers[i];
+                // Zadanie wciąż czekające w kolejce dołączy do tego kroku samo
+                if (!helper.submitted || helper.isDone()) {
+                    helper.submitted = true;
+                    helper.reinitialize();
+                    pool.execute(helper);
+                }
+            }
+        }
+        runChunks();
+        while (completedChunks.get() < chunkCount) {
+            Thread.yield(); // Ostatnie porcje kończą zadania pomocnicze
+        }
+    }
+
+    /**
+     * Tworzy generatory dla porcji, które pojawiły się po raz pierwszy.
+     * Generator zależy tylko od ziarna i numeru porcji, więc porcja ma zawsze ten sam.
+     */
+    private void ensureChunkRandoms(int chunkCount) {
+        if (chunkCount <= chunkRandoms.length) {
+            return;
+        }
+        SplittableRandom[] grown = Arrays.copyOf(chunkRandoms, chunkCount);
+        for (int c = chunkRandoms.length; c < chunkCount; c++) {
+            grown[c] = randomStreams.forEntity("fish.chunk", c);
+        }
+        chunkRandoms = grown;
+    }
+
+    /**
+     * Pobiera i wykonuje kolejne porcje bieżącego kroku, dopóki jakieś zostały.
+     */
+    private void runChunks() {
+        while (true) {
+            long claim = cursor.getAndIncrement();
+            int chunk = (int) claim;
+            if (chunk >= (int) (claim >>> 32)) {
+                return;
+            }
+            moveChunk(chunk);
+            completedChunks.incrementAndGet();
+        }
+    }
+
+    /**
+     * Przesuwa ryby jednej porcji, losując zmiany kierunku z generatora tej porcji.
+     */
+    private void moveChunk(int chunk) {
+        SplittableRandom random = chunkRandoms[chunk];
+        int end = Math.min(fishCount, (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            int species = fish.getSpecies(i);
+            int maxX = speciesMaxX[species];
+            int speed = fish.getSpeed(i);
+            int x = fish.getX(i) + speed;
+            if (x <= 0) {
+                x = 0;
+                speed = -speed;
+            } else if (x >= maxX) {
+                x = maxX;
+                speed = -speed;
+            }
+            if (random.nextInt(100) < speciesTurnChance[species]) { // Ryby od czasu do czasu losowo zmieniają kierunek
+                speed = random.nextBoolean() ? speciesSpeed[species] : -speciesSpeed[species];
+            }
+            fish.setX(i, x);
+            fish.setSpeed(i, speed);
+        }
+    }
+
+    /**
+     * Zadanie pomocnicze puli wątków: wykonuje porcje bieżącego kroku razem z wątkiem wywołującym.
+     */
+    @SuppressWarnings("serial") // Zadanie nigdy nie jest serializowane
+    private class Helper extends RecursiveAction {
+        private boolean submitted = false; // Używane tylko przez wątek wywołujący
+
+        @Override
+        protected void compute() {
+            runChunks();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/**
+ * Pula wszystkich ryb świata w układzie "struktura tablic" (SoA) - jedna tabela komponentów
+ * dla archetypu ryby. Każdy komponent (pozycja, prędkość, kierunek, gatunek, grafika) leży
+ * w osobnej tablicy prymitywnej, a żywe ryby zajmują zawsze ciągły zakres indeksów {@code [0, size)},
+ * więc systemy ruchu, kolizji i rysowania przechodzą po ciągłej pamięci niezależnie od gatunku.
+ * Dane wspólne dla gatunku (rozmiar, prędkość) są odczytywane z tablic indeksowanych
+ * numerem gatunku, czyli jego pozycją w tablicy {@link FishSpecies} przekazanej do konstruktora.
+ * Złapana ryba jest usuwana przez zamianę z ostatnim elementem (swap-remove),
+ * więc wolne miejsca tworzą ciągły ogon tablic - ich lista jest w praktyce
+ * licznikiem i nowa ryba trafia na pierwsze wolne miejsce w czasie O(1).
+ */
+public class FishPool {
+    private final FishSpecies[] speciesTable;
+    private final int[] speciesWidth;
+    private final int[] speciesHeight;
+    private final int[] speciesCount; // Liczba żywych ryb każdego gatunku
+    private final int maxWidth;
+    private final int maxHeight;
+
+    private int[] x;
+    private int[] previousX; // Pozycja z poprzedniego kroku, do interpolacji podczas rysowania
+    private int[] y;
+    private int[] speed;
+    private boolean[] facingLeft;
+    private byte[] species;
+    private byte[] sprite;
+    private int size = 0;
+
+    /**
+     * Tworzy pustą pulę.
+     * @param speciesTable Gatunki ryb; numer gatunku to jego indeks w tej tablicy.
+     * @param initialCapacity Początkowa pojemność tablic; pula rośnie automatycznie.
+     */
+    public FishPool(FishSpecies[] speciesTable, int initialCapacity) {
+        if (speciesTable.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Zbyt wiele gatunków ryb: " + speciesTable.length);
+        }
+        this.speciesTable = speciesTable.clone();
+        speciesWidth = new int[speciesTable.length];
+        speciesHeight = new int[speciesTable.length];
+        speciesCount = new int[speciesTable.length];
+        int widest = 0, tallest = 0;
+        for (int s = 0; s < speciesTable.length; s++) {
+            speciesWidth[s] = speciesTable[s].getWidth();
+            speciesHeight[s] = speciesTable[s].getHeight();
+            widest = Math.max(widest, speciesWidth[s]);
+            tallest = Math.max(tallest, speciesHeight[s]);
+        }
+        maxWidth = widest;
+        maxHeight = tallest;
+
+        int capacity = Math.max(1, initialCapacity);
+        x = new int[capacity];
+        previousX = new int[capacity];
+        y = new int[capacity];
+        speed = new int[capacity];
+        facingLeft = new boolean[capacity];
+        species = new byte[capacity];
+        sprite = new byte[capacity];
+    }
+
+    /**
+     * Dodaje rybę na pierwsze wolne miejsce za ostatnią żywą rybą.
+     * Grafika ryby jest początkowo grafiką jej gatunku.
+     * @param fishSpecies Numer gatunku.
+     * @param fishX Pozycja pozioma.
+     * @param fishY Pozycja pionowa.
+     * @param fishSpeed Prędkość pozioma (ujemna - ryba płynie w lewo).
+     * @return Indeks dodanej ryby.
+     */
+    public int add(int fishSpecies, int fishX, int fishY, int fishSpeed) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = fishX;
+        previousX[i] = fishX;
+        y[i] = fishY;
+        speed[i] = fishSpeed;
+        facingLeft[i] = fishSpeed < 0;
+        species[i] = (byte) fishSpecies;
+        sprite[i] = (byte) speciesTable[fishSpecies].getSpriteId();
+        speciesCount[fishSpecies]++;
+        return i;
+    }
+
+    /**
+     * Usuwa rybę, przenosząc na jej miejsce ostatnią żywą rybę.
+     * @param i Indeks usuwanej ryby.
+     * @return Poprzedni indeks ryby przeniesionej na miejsce {@code i}
+     *         (równy {@code i}, jeśli usunięto ostatnią rybę).
+     */
+    public int remove(int i) {
+        speciesCount[species[i]]--;
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            previousX[i] = previousX[last];
+            y[i] = y[last];
+            speed[i] = speed[last];
+            facingLeft[i] = facingLeft[last];
+            species[i] = species[last];
+            sprite[i] = sprite[last];
+        }
+        return last;
+    }
+
+    /**
+     * Usuwa wszystkie ryby z puli (pojemność tablic pozostaje bez zmian).
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(speciesCount, 0);
+    }
+
+    /**
+     * Podwaja pojemność wszystkich tablic komponentów.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        y = Arrays.copyOf(y, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        facingLeft = Arrays.copyOf(facingLeft, capacity);
+        species = Arrays.copyOf(species, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+    }
+
+    // Gettery i Settery
+    public int size() { return size; }
+    public int capacity() { return x.length; }
+    public int getSpeciesCount() { return speciesTable.length; }
+    public FishSpecies getSpeciesInfo(int s) { return speciesTable[s]; }
+    public int countOf(int s) { return speciesCount[s]; }
+    public int getMaxWidth() { return maxWidth; }
+    public int getMaxHeight() { return maxHeight; }
+    public int getX(int i) { return x[i]; }
+    public int getPreviousX(int i) { return previousX[i]; }
+    public int getY(int i) { return y[i]; }
+    public int getSpeed(int i) { return speed[i]; }
+    public boolean isFacingLeft(int i) { return facingLeft[i]; }
+    public int getSpecies(int i) { return species[i]; }
+    public int getSprite(int i) { return sprite[i]; }
+    public int getWidth(int i) { return speciesWidth[species[i]]; }
+    public int getHeight(int i) { return speciesHeight[species[i]]; }
+    public void setX(int i, int value) {
+        previousX[i] = x[i];
+        x[i] = value;
+    }
+    public void setSpeed(int i, int value) {
+        speed[i] = value;
+        facingLeft[i] = value < 0;
+    }
+    public void setSprite(int i, int spriteId) { sprite[i] = (byte) spriteId; }
+}
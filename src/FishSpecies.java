@@ -0,0 +1,67 @@
+/**
+ * Opis gatunku ryby - same dane, bez zachowania. Ruch, kolizje i rysowanie wszystkich gatunków
+ * wykonują te same systemy ({@link FishMover}, {@link World#tick(TickInput)}, {@link FishSprites}),
+ * które odczytują z opisu rozmiar, prędkość i grafikę ryby. Nowy gatunek to więc tylko nowy
+ * obiekt tej klasy przekazany do {@link World}, a nie nowa klasa z własną pętlą.
+ */
+public final class FishSpecies {
+    /** Zwykła, pomarańczowa ryba. */
+    public static final FishSpecies ORANGE = new FishSpecies("orange", 30, 20, 2, 5, 5, FishSprites.ORANGE_FISH, false);
+    /** Rzadsza i szybsza czerwona ryba, dająca trudniejszą minigrę. */
+    public static final FishSpecies RED = new FishSpecies("red", 50, 40, 5, 5, 2, FishSprites.RED_FISH, true);
+
+    private final String name;
+    private final int width;
+    private final int height;
+    private final int speed;
+    private final int turnChancePercent;
+    private final int population;
+    private final int spriteId;
+    private final boolean special;
+
+    /**
+     * Tworzy opis gatunku.
+     * @param name Nazwa gatunku (do diagnostyki).
+     * @param width Szerokość ryby w pikselach.
+     * @param height Wysokość ryby w pikselach.
+     * @param speed Prędkość pozioma ryby w pikselach na krok.
+     * @param turnChancePercent Szansa (w procentach) na losową zmianę kierunku w każdym kroku.
+     * @param population Liczba ryb gatunku utrzymywana w świecie (złapane są odradzane).
+     * @param spriteId Identyfikator grafiki w {@link FishSprites}.
+     * @param special Czy złapanie ryby uruchamia trudniejszą minigrę ze specjalną rybą.
+     */
+    public FishSpecies(String name, int width, int height, int speed, int turnChancePercent, int population,
+                       int spriteId, boolean special) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.speed = speed;
+        this.turnChancePercent = turnChancePercent;
+        this.population = population;
+        this.spriteId = spriteId;
+        this.special = special;
+    }
+
+    /**
+     * Zwraca kopię opisu z inną liczebnością gatunku.
+     * @param population Liczba ryb gatunku utrzymywana w świecie.
+     */
+    public FishSpecies withPopulation(int population) {
+        return new FishSpecies(name, width, height, speed, turnChancePercent, population, spriteId, special);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    // Gettery do odczytu danych gatunku
+    public String getName() { return name; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getSpeed() { return speed; }
+    public int getTurnChancePercent() { return turnChancePercent; }
+    public int getPopulation() { return population; }
+    public int getSpriteId() { return spriteId; }
+    public boolean isSpecial() { return special; }
+}
@@ -0,0 +1,200 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pamięć podręczna wstępnie wyrenderowanych grafik ryb, wskazywanych identyfikatorem grafiki
+ * z opisu gatunku ({@link FishSpecies#getSpriteId()}) lub z puli ryb ({@link FishPool#getSprite(int)}).
+ * Każda kombinacja grafiki, rozmiaru i kierunku jest rysowana tylko raz
+ * do obrazu zgodnego z powierzchnią docelową, a później ryba jest rysowana
+ * pojedynczym wywołaniem {@code drawImage} - bez kopiowania kontekstu graficznego,
+ * transformacji lustrzanego odbicia i rysowania owali w każdej klatce.
+ */
+public class FishSprites {
+    /** Zwykła ryba rysowana wektorowo w kolorze pomarańczowym. */
+    public static final int ORANGE_FISH = 0;
+    /** Czerwona ryba w stylu pixel art, skalowana z obrazu 30x20. */
+    public static final int RED_FISH = 1;
+
+    private static final Color FISH_ORANGE = new Color(255, 140, 0);
+    private static BufferedImage redFishImage; // Obraz źródłowy czerwonej ryby, wspólny dla wszystkich pamięci
+
+    /**
+     * Pojedyncza zapamiętana grafika wraz z parametrami, dla których została narysowana.
+     */
+    private static class Sprite {
+        final int spriteId;
+        final int width;
+        final int height;
+        final boolean facingLeft;
+        final BufferedImage image;
+
+        Sprite(int spriteId, int width, int height, boolean facingLeft, BufferedImage image) {
+            this.spriteId = spriteId;
+            this.width = width;
+            this.height = height;
+            this.facingLeft = facingLeft;
+            this.image = image;
+        }
+    }
+
+    // Grafik jest zaledwie kilka, więc wyszukiwanie liniowe jest szybsze od mapy i nie alokuje pamięci
+    private final List<Sprite> sprites = new ArrayList<>();
+
+    /**
+     * Zwraca grafikę ryby, tworząc ją przy pierwszym użyciu.
+     * @param config Konfiguracja powierzchni docelowej, z którą ma być zgodny obraz.
+     * @param spriteId Identyfikator grafiki ({@link #ORANGE_FISH} lub {@link #RED_FISH}).
+     * @param width Szerokość ryby.
+     * @param height Wysokość ryby.
+     * @param facingLeft Czy ryba jest zwrócona w lewo.
+     * @return Obraz ryby; jego lewy górny róg odpowiada pozycji ryby.
+     */
+    public BufferedImage get(GraphicsConfiguration config, int spriteId, int width, int height, boolean facingLeft) {
+        for (int i = 0; i < sprites.size(); i++) {
+            Sprite sprite = sprites.get(i);
+            if (sprite.spriteId == spriteId && sprite.width == width && sprite.height == height
+                    && sprite.facingLeft == facingLeft) {
+                return sprite.image;
+            }
+        }
+
+        // Obrys owalu i ogona wychodzi o jeden piksel poza wymiary ryby
+        BufferedImage image = config.createCompatibleImage(width + 1, height + 1, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            if (spriteId == RED_FISH) {
+                paintRedFish(g, width, height, facingLeft);
+            } else {
+                paintFish(g, 0, 0, width, height, FISH_ORANGE, facingLeft);
+            }
+        } finally {
+            g.dispose();
+        }
+        sprites.add(new Sprite(spriteId, width, height, facingLeft, image));
+        return image;
+    }
+
+    /**
+     * Rysuje czerwoną rybę w docelowym rozmiarze i kierunku, skalując obraz pixel art
+     * metodą najbliższego sąsiada (ostry, pixelowy wygląd) i w razie potrzeby odbijając go w poziomie.
+     */
+    private static void paintRedFish(Graphics2D g, int width, int height, boolean facingLeft) {
+        if (redFishImage == null) {
+            redFishImage = createPixelArtRedFish();
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        if (facingLeft) {
+            g.drawImage(redFishImage, width, 0, -width, height, null);
+        } else {
+            g.drawImage(redFishImage, 0, 0, width, height, null);
+        }
+    }
+
+    /**
+     * Rysuje rybę wektorowo (owale, wielokąt i linie) w stylu pixel art.
+     * Używane do tworzenia grafik w pamięci podręcznej.
+     */
+    public static void paintFish(Graphics g, int x, int y, int width, int height, Color fishColor, boolean facingLeft) {
+        Graphics2D g2d = (Graphics2D) g.create(); // Użyj kopii, aby transformacje nie wpływały na inne elementy
+        try {
+            // Domyślny obrazek ryby jest skierowany w lewo.
+            // Odwracamy go (aby był skierowany w prawo) tylko wtedy, gdy facingLeft jest fałszywe.
+            if (!facingLeft) {
+                // Odwróć grafikę w poziomie
+                g2d.translate(x + width, y);
+                g2d.scale(-1, 1);
+                g2d.translate(-x, -y);
+            }
+
+            // Poniższy kod rysuje rybę skierowaną w lewo (ogon po prawej, oko po lewej)
+            g2d.setColor(fishColor);
+            g2d.fillOval(x, y, width - 8, height); // Ciało
+            int[] tailX = {x + width - 8, x + width, x + width - 8}; // Ogon
+            int[] tailY = {y, y + height/2, y + height};
+            g2d.fillPolygon(tailX, tailY, 3);
+            g2d.setColor(Color.BLACK);
+            g2d.drawOval(x, y, width - 8, height);
+            g2d.drawPolygon(tailX, tailY, 3);
+            g2d.setColor(Color.WHITE);
+            g2d.fillOval(x + 2, y + 3, 6, 6); // Oko
+            g2d.setColor(Color.BLACK);
+            g2d.fillOval(x + 4, y + 5, 2, 2);
+            g2d.setColor(fishColor.darker());
+            g2d.drawLine(x + 3, y + height/2, x + width - 12, y + height/2);
+        } finally {
+            g2d.dispose(); // Zwolnij zasoby kopii
+        }
+    }
+
+    /**
+     * Proceduralnie generuje obraz BufferedImage przedstawiający rybę.
+     * Metoda ta krok po kroku rysuje poszczególne elementy ryby,
+     * takie jak ciało, płetwy, oko i łuski, używając określonej palety barw.
+     *
+     * @return Obiekt BufferedImage zawierający gotową grafikę ryby.
+     */
+    private static BufferedImage createPixelArtRedFish() {
+        BufferedImage image = new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        g.setColor(new Color(205, 85, 65));
+        g.fillOval(5, 5, 18, 10);
+
+        g.setColor(new Color(235, 150, 120));
+        g.fillOval(7, 8, 14, 4);
+
+        g.setColor(new Color(145, 55, 35));
+        g.drawOval(5, 5, 18, 10);
+
+        int[] xPoints = {5, 0, 2, 5, 3};
+        int[] yPoints = {8, 9, 11, 12, 10};
+        g.setColor(new Color(185, 70, 50));
+        g.fillPolygon(xPoints, yPoints, 5);
+
+        g.setColor(new Color(145, 55, 35));
+        g.drawPolygon(xPoints, yPoints, 5);
+
+        g.setColor(Color.BLACK);
+        g.fillOval(16, 6, 6, 6);
+
+        g.setColor(new Color(70, 130, 180));
+        g.fillOval(17, 7, 4, 4);
+
+        g.setColor(Color.WHITE);
+        g.fillOval(18, 7, 2, 2);
+        g.fillRect(17, 8, 1, 1);
+
+        g.setColor(new Color(185, 70, 50));
+        g.fillOval(11, 1, 7, 5);
+        g.fillOval(11, 14, 7, 5);
+        g.fillOval(13, 11, 5, 3);
+
+        g.setColor(new Color(145, 55, 35));
+        g.drawOval(11, 1, 7, 5);
+        g.drawOval(11, 14, 7, 5);
+        g.drawOval(13, 11, 5, 3);
+
+        g.setColor(new Color(225, 120, 90));
+        g.fillOval(8, 6, 3, 2);
+        g.fillOval(12, 7, 3, 2);
+        g.fillOval(15, 8, 3, 2);
+        g.fillOval(10, 9, 3, 2);
+        g.fillOval(13, 10, 3, 2);
+
+        g.setColor(new Color(165, 60, 45));
+        g.fillRect(9, 7, 1, 1);
+        g.fillRect(11, 8, 1, 1);
+        g.fillRect(14, 9, 1, 1);
+        g.fillRect(16, 10, 1, 1);
+
+        g.setColor(new Color(145, 55, 35));
+        g.fillOval(23, 9, 2, 2);
+
+        g.dispose();
+        return image;
+    }
+}
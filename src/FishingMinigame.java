@@ -1,18 +1,36 @@
-import javax.swing.*;
 import java.awt.*;
-import java.awt.event.*;
-import java.util.Random;
-import java.io.*;
+import java.util.SplittableRandom;
 import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
 
 /**
- * Implementuje panel minigry wędkarskiej, która jest uruchamiana po złapaniu ryby.
+ * Implementuje minigrę wędkarską, która jest uruchamiana po złapaniu ryby.
  * Zadaniem gracza jest utrzymanie zielonego paska na poruszającej się w pionie rybie,
- * aby napełnić pasek postępu i wygrać. Minigra posiada własną pętlę, fizykę
- * oraz system punktacji, a jej wynik jest zapisywany do pliku.
+ * aby napełnić pasek postępu i wygrać. Minigra posiada własną fizykę
+ * oraz system punktacji, a jej wynik trafia do współdzielonego stanu gracza.
+ * Logika jest wykonywana w krokach pętli gry ({@link #tick()}), a minigra jest rysowana
+ * jako nakładka na głównej powierzchni gry ({@link #draw(Graphics2D, int, int)}),
+ * bez osobnego okna i timerów Swinga. Przed każdą rundą stan jest przywracany
+ * metodą {@link #reset(boolean)}.
  */
-public class FishingMinigame extends JPanel implements ActionListener, KeyListener {
+public class FishingMinigame {
+
+    /**
+     * Wynik pojedynczego kroku minigry.
+     */
+    public enum Result {
+        /** Runda trwa (lub czeka na pierwsze naciśnięcie spacji). */
+        RUNNING,
+        /** Pasek postępu osiągnął 100% - ryba złapana. */
+        WON,
+        /** Skończył się czas - ryba uciekła. */
+        LOST
+    }
+
+    /** Szerokość nakładki minigry. */
+    public static final int WIDTH = 300;
+    /** Wysokość nakładki minigry. */
+    public static final int HEIGHT = 380;
+
     private int barY, fishY;
     private int fishSpeed = 2;
     private int barVelocity = 0;
@@ -24,12 +42,12 @@ public class FishingMinigame extends JPanel implements ActionListener, KeyListen
     private int fishHeight = 40;
     /** Aktualny postęp złapania ryby (0-100). */
     private int score = 0;
-    /** Statyczna zmienna przechowująca łączną liczbę złapanych ryb. */
-    private static int fishCaught = 0;
-    /** Główny timer minigry, odpowiada za aktualizację logiki i fizyki. */
-    private Timer timer;
-    /** Osobny timer do odliczania czasu pozostałego na ukończenie minigry. */
-    private Timer gameTimer;
+    /** Współdzielony stan gracza, w którym zapisywane są złapane ryby. */
+    private final PlayerState playerState;
+    /** Liczba kroków pętli gry przypadających na jedną sekundę odliczania. */
+    private final int ticksPerSecond;
+    /** Kroki, które upłynęły od ostatniego odliczenia sekundy. */
+    private int secondTicks = 0;
     private int timeLeft = 10;
     private boolean gameRunning = false;
     private boolean firstJump = false;
@@ -37,68 +55,42 @@ public class FishingMinigame extends JPanel implements ActionListener, KeyListen
     private final int FRAME_TOP = 50;
     /** Dolna granica obszaru gry. */
     private final int FRAME_BOTTOM = 350;
-    private Random random;
-    private static final String SAVE_FILE = "fish_caught.txt";
-    private BoatGame boatGame;
-    private JFrame fishingFrame;
+    private final SplittableRandom random;
     /** Flaga określająca, czy łapana ryba jest specjalnym (czerwonym) typem. */
     private boolean isRedFish;
 
-    // Obrazy dla elementów minigry
-    private BufferedImage minigameBarImage;
-    private BufferedImage minigameFishImage;
-    private BufferedImage minigameRedFishImage;
+    private static final Color BACKGROUND_COLOR = new Color(173, 216, 230);
+    private static final Color HINT_COLOR = new Color(255, 255, 0, 150);
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.BOLD, 16);
+
+    private final Histogram tickTime;
+    private final Histogram drawTime;
 
     /**
-     * Konstruktor minigry wędkarskiej.
-     * @param boatGame Referencja do głównego obiektu gry, potrzebna do wznowienia rozgrywki.
-     * @param fishingFrame Ramka (okno), w której wyświetlana jest minigra.
-     * @param isRedFish True, jeśli łapana ryba jest rzadszym, czerwonym typem.
+     * Konstruktor minigry wędkarskiej. Grafiki pochodzą ze wspólnej pamięci podręcznej
+     * {@link MinigameAssets}, więc nie są dekodowane przy każdym utworzeniu.
+     * @param playerState Współdzielony stan gracza, do którego trafiają złapane ryby.
+     * @param ticksPerSecond Liczba kroków pętli gry na sekundę, używana do odliczania czasu.
+     * @param random Generator ruchów ryby (zob. {@link RandomStreams}), dzięki któremu przebieg minigry jest powtarzalny.
+     * @param metrics Rejestr, w którym mierzony jest czas kroku i rysowania minigry.
      */
-    public FishingMinigame(BoatGame boatGame, JFrame fishingFrame, boolean isRedFish) {
-        this.boatGame = boatGame;
-        this.fishingFrame = fishingFrame;
-        this.isRedFish = isRedFish;
+    public FishingMinigame(PlayerState playerState, int ticksPerSecond, SplittableRandom random, Metrics metrics) {
+        this.playerState = playerState;
+        this.tickTime = metrics.timer("minigame.tick");
+        this.drawTime = metrics.timer("minigame.draw");
+        this.ticksPerSecond = Math.max(1, ticksPerSecond);
+        this.random = random;
         barY = 120;
-        fishY = new Random().nextInt(FRAME_BOTTOM - FRAME_TOP - fishHeight) + FRAME_TOP;
-        timer = new Timer(30, this);
-        gameTimer = new Timer(1000, e -> updateGameTimer());
-        setFocusable(true);
-        addKeyListener(this);
-        random = new Random();
-        loadFishCaught();
-
-        // Wczytywanie obrazków pixel art dla minigry
-        try {
-            minigameBarImage = ImageIO.read(new File("minigame_bar_pixel.png"));
-            minigameFishImage = ImageIO.read(new File("minigame_fish_pixel.png"));
-            minigameRedFishImage = ImageIO.read(new File("minigame_red_fish_pixel.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.err.println("Błąd wczytywania obrazów pixel art dla minigry!");
-        }
-    }
-
-    public static int getFishCaughtStatic() {
-        return fishCaught;
+        fishY = random.nextInt(FRAME_BOTTOM - FRAME_TOP - fishHeight) + FRAME_TOP;
     }
 
     /**
-     * Metoda wywoływana przez `gameTimer` co sekundę.
-     * Odpowiada za odliczanie czasu i zakończenie gry porażką, gdy czas się skończy.
+     * Przygotowuje minigrę do nowej rundy po złapaniu ryby.
+     * @param isRedFish True, jeśli łapana ryba jest rzadszym, czerwonym typem.
      */
-    private void updateGameTimer() {
-        if (gameRunning) {
-            timeLeft--;
-            if (timeLeft <= 0) {
-                gameRunning = false;
-                timer.stop();
-                gameTimer.stop();
-                displayMessage("Czas minął! Nie złapałeś ryby.");
-                closeFishingMinigame();
-            }
-        }
-        repaint();
+    public void reset(boolean isRedFish) {
+        this.isRedFish = isRedFish;
+        restartGame();
     }
 
     /**
@@ -108,108 +100,108 @@ public class FishingMinigame extends JPanel implements ActionListener, KeyListen
         barY = 120;
         barVelocity = 0;
         firstJump = false;
-        fishY = new Random().nextInt(FRAME_BOTTOM - FRAME_TOP - fishHeight) + FRAME_TOP;
+        fishY = random.nextInt(FRAME_BOTTOM - FRAME_TOP - fishHeight) + FRAME_TOP;
         score = 0;
         timeLeft = 10;
+        secondTicks = 0;
         gameRunning = false;
-        timer.stop();
-        gameTimer.stop();
-        requestFocusInWindow();
-        repaint();
     }
 
     /**
-     * Zapisuje aktualną liczbę złowionych ryb do pliku.
+     * Rysuje minigrę jako nakładkę na powierzchni gry.
+     * @param g2d Kontekst graficzny klatki.
+     * @param x Lewa krawędź nakładki.
+     * @param y Górna krawędź nakładki.
      */
-    private void saveFishCaught() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(SAVE_FILE))) {
-            writer.write(String.valueOf(fishCaught));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
+    public void draw(Graphics2D g2d, int x, int y) {
+        long start = System.nanoTime();
+        Graphics2D g = (Graphics2D) g2d.create(x, y, WIDTH, HEIGHT);
+        try {
+            // Ustawienia renderingu zapewniające ostry, "pixelowy" wygląd
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
 
-    /**
-     * Wczytuje liczbę złowionych ryb z pliku przy starcie minigry.
-     */
-    private void loadFishCaught() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(SAVE_FILE))) {
-            String line = reader.readLine();
-            if (line != null) {
-                fishCaught = Integer.parseInt(line);
+            // Rysowanie tła wraz z obramowaniem nakładki
+            g.setColor(BACKGROUND_COLOR);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            g.setColor(Color.BLACK);
+            g.drawRect(0, 0, WIDTH - 1, HEIGHT - 1);
+
+            // Rysowanie ramki
+            g.setColor(Color.DARK_GRAY);
+            g.fillRect(45, FRAME_TOP, 5, FRAME_BOTTOM - FRAME_TOP);
+            g.fillRect(45 + 30 - 5, FRAME_TOP, 5, FRAME_BOTTOM - FRAME_TOP);
+
+            // Rysowanie paska gracza
+            BufferedImage barImage = MinigameAssets.getBarImage();
+            if (barImage != null) {
+                g.drawImage(barImage, 50, barY, 20, barHeight, null);
+            } else {
+                g.setColor(Color.GREEN);
+                g.fillRect(50, barY, 20, barHeight);
             }
-        } catch (IOException e) {
-            fishCaught = 0;
-        }
-    }
-
-    /**
-     * Metoda odpowiedzialna za rysowanie wszystkich elementów minigry.
-     * @param g Kontekst graficzny do rysowania.
-     */
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-
-        // Ustawienia renderingu zapewniające ostry, "pixelowy" wygląd
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
 
-        // Rysowanie tła
-        g.setColor(new Color(173, 216, 230));
-        g.fillRect(0, 0, getWidth(), getHeight());
-
-        // Rysowanie ramki
-        g.setColor(Color.DARK_GRAY);
-        g.fillRect(45, FRAME_TOP, 5, FRAME_BOTTOM - FRAME_TOP);
-        g.fillRect(45 + 30 - 5, FRAME_TOP, 5, FRAME_BOTTOM - FRAME_TOP);
-
-        // Rysowanie paska gracza
-        if (minigameBarImage != null) {
-            g2d.drawImage(minigameBarImage, 50, barY, 20, barHeight, this);
-        } else {
-            g.setColor(Color.GREEN);
-            g.fillRect(50, barY, 20, barHeight);
-        }
-
-        // Rysowanie ryby (zwykłej lub czerwonej)
-        BufferedImage currentFishImage = isRedFish ? minigameRedFishImage : minigameFishImage;
-        if (currentFishImage != null) {
-            g2d.drawImage(currentFishImage, 50, fishY, 20, fishHeight, this);
-        } else {
-            g.setColor(isRedFish ? Color.RED : Color.ORANGE);
-            g.fillRect(50, fishY, 20, fishHeight);
-        }
-
-        // Rysowanie paska postępu
-        g.setColor(Color.GRAY);
-        g.fillRect(80, 20, 100, 10);
-        g.setColor(Color.BLUE);
-        g.fillRect(80, 20, score, 10);
+            // Rysowanie ryby (zwykłej lub czerwonej)
+            BufferedImage currentFishImage = isRedFish ? MinigameAssets.getRedFishImage() : MinigameAssets.getFishImage();
+            if (currentFishImage != null) {
+                g.drawImage(currentFishImage, 50, fishY, 20, fishHeight, null);
+            } else {
+                g.setColor(isRedFish ? Color.RED : Color.ORANGE);
+                g.fillRect(50, fishY, 20, fishHeight);
+            }
 
-        // Wyświetlanie tekstu
-        g.setColor(Color.BLACK);
-        g.setFont(new Font("Monospaced", Font.BOLD, 16));
-        g.drawString("Pozostały czas: " + timeLeft + "s", 100, 50);
-        g.drawString("Złapane ryby: " + fishCaught, 100, 70);
+            // Rysowanie paska postępu
+            g.setColor(Color.GRAY);
+            g.fillRect(80, 20, 100, 10);
+            g.setColor(Color.BLUE);
+            g.fillRect(80, 20, score, 10);
 
-        // Wyświetlanie instrukcji startowej
-        if (!firstJump) {
-            g.setColor(new Color(255, 255, 0, 150));
-            g.fillRect(30, 200, 140, 50);
+            // Wyświetlanie tekstu
             g.setColor(Color.BLACK);
-            g.drawString("Naciśnij SPACE by zacząć", 40, 230);
+            g.setFont(TEXT_FONT);
+            g.drawString("Pozostały czas: " + timeLeft + "s", 90, 50);
+            g.drawString("Złapane ryby: " + playerState.getFishCaught(), 90, 70);
+
+            // Wyświetlanie instrukcji startowej
+            if (!firstJump) {
+                g.setColor(HINT_COLOR);
+                g.fillRect(30, 200, 240, 50);
+                g.setColor(Color.BLACK);
+                g.drawString("Naciśnij SPACE by zacząć", 40, 230);
+            }
+        } finally {
+            g.dispose();
         }
+        drawTime.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Jeden krok logiki minigry, wywoływany przez pętlę gry.
+     * Aktualizuje pozycje ryby i paska, sprawdza kolizje, odlicza czas i warunki zwycięstwa.
+     * @return Wynik kroku; po wygranej ryba jest już dopisana do stanu gracza.
+     */
+    public Result tick() {
+        long start = System.nanoTime();
+        Result result = step();
+        tickTime.record(System.nanoTime() - start);
+        return result;
     }
 
     /**
-     * Główna pętla logiki minigry, wywoływana przez `timer`.
-     * Aktualizuje pozycje ryby i paska, sprawdza kolizje i warunki zwycięstwa.
+     * Wykonuje logikę pojedynczego kroku minigry.
      */
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (!gameRunning) return;
+    private Result step() {
+        if (!gameRunning) return Result.RUNNING;
+
+        // Odliczanie czasu pozostałego na ukończenie minigry
+        if (++secondTicks >= ticksPerSecond) {
+            secondTicks = 0;
+            timeLeft--;
+            if (timeLeft <= 0) {
+                gameRunning = false;
+                return Result.LOST;
+            }
+        }
 
         // Czerwone ryby poruszają się szybciej
         fishY += isRedFish ? fishSpeed * 2 : fishSpeed;
@@ -240,81 +232,40 @@ public class FishingMinigame extends JPanel implements ActionListener, KeyListen
         }
 
         // Sprawdzanie kolizji paska z rybą i aktualizacja wyniku
-        if (new Rectangle(50, barY, 20, barHeight).intersects(new Rectangle(50, fishY, 20, fishHeight))) {
+        if (barY < fishY + fishHeight && fishY < barY + barHeight) { // Obie figury mają tę samą pozycję w poziomie
             score = Math.min(score + 1, 100);
             if (score >= 100) { // Warunek zwycięstwa
                 gameRunning = false;
-                timer.stop();
-                gameTimer.stop();
-                if (isRedFish) {
-                    fishCaught += 2; // Czerwona ryba warta jest 2 punkty
-                } else {
-                    fishCaught++;
-                }
-                saveFishCaught();
-                displayMessage("Złapałeś rybę!");
-                closeFishingMinigame();
+                // Czerwona ryba warta jest 2 punkty; transakcja trafia do dziennika zapisywanego w tle
+                playerState.catchFish(isRedFish ? 2 : 1);
+                return Result.WON;
             }
         } else {
             score = Math.max(score - 1, 0);
         }
-
-        repaint();
-    }
-
-    /**
-     * Zamyka okno minigry i wznawia główną grę.
-     */
-    private void closeFishingMinigame() {
-        boatGame.resetHook();
-        fishingFrame.dispose();
-        boatGame.resumeGame();
+        return Result.RUNNING;
     }
 
     /**
-     * Obsługuje naciśnięcia klawiszy przez gracza.
-     * Spacja rozpoczyna grę i powoduje "skok" paska.
+     * Obsługuje naciśnięcie spacji: pierwsze rozpoczyna rundę, każde powoduje "skok" paska.
      */
-    @Override
-    public void keyPressed(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            if (!gameRunning) {
-                restartGame();
-                gameRunning = true;
-                firstJump = true;
-                timer.start();
-                gameTimer.start();
-            }
-            barVelocity = jumpStrength;
+    public void jump() {
+        if (!gameRunning) {
+            beginRound();
         }
-    }
-
-    @Override
-    public void keyReleased(KeyEvent e) {}
-
-    @Override
-    public void keyTyped(KeyEvent e) {}
-
-    @Override
-    public boolean isFocusable() {
-        return true;
+        barVelocity = jumpStrength;
     }
 
     /**
-     * Wyświetla komunikat dla gracza w osobnym, stylizowanym oknie,
-     * aby zachować spójność wizualną gry.
-     * @param message Wiadomość do wyświetlenia.
+     * Rozpoczyna nową rundę. Benchmarki wywołują tę metodę, a następnie same sterują krokami logiki.
      */
-    private void displayMessage(String message) {
-        JFrame messageFrame = new JFrame("Komunikat");
-        messageFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        messageFrame.setSize(300, 100);
-        messageFrame.setLocationRelativeTo(fishingFrame);
-
-        JLabel messageLabel = new JLabel(message, SwingConstants.CENTER);
-        messageLabel.setFont(new Font("Monospaced", Font.BOLD, 16));
-        messageFrame.add(messageLabel);
+    void beginRound() {
+        restartGame();
+        gameRunning = true;
+        firstJump = true;
+    }
 
-        messageFrame.setVisible(true);
+    public boolean isRedFish() {
+        return isRedFish;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Powierzchnia aktywnego renderowania gry.
+ * Zamiast czekać, aż Swing zaplanuje odświeżenie panelu, pętla gry sama rysuje
+ * każdą klatkę do bufora tylnego strategii {@link BufferStrategy} i jawnie ją
+ * wyświetla metodą {@code show()} (page flipping lub kopiowanie bufora).
+ * Bufory są tworzone jako akcelerowane obrazy {@code VolatileImage}, więc
+ * trzeba obsłużyć utratę ich zawartości - klatka jest wtedy rysowana ponownie.
+ */
+@SuppressWarnings("serial") // Płótno nigdy nie jest serializowane
+public class GameCanvas extends Canvas {
+    private final BoatGame game;
+    private final int bufferCount;
+    private BufferStrategy strategy;
+    private int strategyWidth, strategyHeight;
+
+    /**
+     * Tworzy powierzchnię aktywnego renderowania dla gry.
+     * @param game Gra, której scena jest rysowana.
+     */
+    public GameCanvas(BoatGame game) {
+        this.game = game;
+        // Podwójne lub potrójne buforowanie, ustawiane właściwością -Dfishing.buffers
+        this.bufferCount = Math.max(2, Math.min(3, Integer.getInteger("fishing.buffers", 3)));
+        setIgnoreRepaint(true); // Zdarzenia odświeżania systemu nie są potrzebne - pętla rysuje sama
+        setBackground(Color.BLACK);
+        setFocusable(true);
+    }
+
+    /**
+     * Rysuje i wyświetla jedną klatkę. Wywoływane z wątku pętli gry.
+     * @param alpha Współczynnik interpolacji między poprzednim a bieżącym krokiem symulacji.
+     */
+    public void render(double alpha) {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        BufferStrategy bufferStrategy = getStrategy();
+        do {
+            do {
+                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                try {
+                    game.renderFrame(g, getWidth(), getHeight(), alpha);
+                } finally {
+                    g.dispose();
+                }
+                // Bufor został odtworzony w trakcie rysowania - klatkę trzeba narysować ponownie
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // Wymusza natychmiastowe wyświetlenie (ważne na Linuksie)
+        game.frameShown(); // Klatka jest na ekranie - koniec pomiaru opóźnienia wejścia
+    }
+
+    /**
+     * Zwraca strategię buforowania, tworząc ją przy pierwszym użyciu i po zmianie rozmiaru.
+     */
+    private BufferStrategy getStrategy() {
+        if (strategy == null || strategyWidth != getWidth() || strategyHeight != getHeight()) {
+            try {
+                // Akcelerowane bufory przód/tył (VolatileImage) z przełączaniem stron
+                createBufferStrategy(bufferCount, new BufferCapabilities(
+                        new ImageCapabilities(true), new ImageCapabilities(true),
+                        BufferCapabilities.FlipContents.UNDEFINED));
+            } catch (AWTException e) {
+                // Brak sprzętowego przełączania stron - strategia z kopiowaniem bufora
+                createBufferStrategy(bufferCount);
+            }
+            strategy = getBufferStrategy();
+            strategyWidth = getWidth();
+            strategyHeight = getHeight();
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,40 @@
+import java.io.*;
+
+/**
+ * Wspólne metody odczytu i zapisu stanu gry w plikach tekstowych.
+ * Każdy plik przechowuje pojedynczą liczbę całkowitą (np. pieniądze, liczbę ryb
+ * lub poziom ulepszenia), dlatego wszystkie klasy gry korzystają z tych samych dwóch operacji.
+ */
+public class GameFiles {
+
+    private GameFiles() {
+    }
+
+    /**
+     * Wczytuje liczbę całkowitą z pierwszej linii pliku.
+     * @param file Plik do odczytu.
+     * @param defaultValue Wartość zwracana, gdy plik nie istnieje, jest pusty lub zawiera niepoprawne dane.
+     * @return Wczytana wartość lub wartość domyślna.
+     */
+    public static int readInt(File file, int defaultValue) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            return (line != null) ? Integer.parseInt(line.trim()) : defaultValue;
+        } catch (IOException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Zapisuje liczbę całkowitą do pliku, nadpisując jego poprzednią zawartość.
+     * @param file Plik docelowy.
+     * @param value Wartość do zapisania.
+     */
+    public static void writeInt(File file, int value) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(String.valueOf(value));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
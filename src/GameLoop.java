@@ -0,0 +1,103 @@
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Pętla gry działająca we własnym wątku, ze stałym krokiem symulacji.
+ * Czas rzeczywisty mierzony przez {@link System#nanoTime()} jest sumowany w akumulatorze,
+ * z którego pobierane są pełne kroki symulacji o stałej długości - niezależnie od tego,
+ * jak długo trwa rysowanie klatki czy obsługa zdarzeń w wątku EDT.
+ * Po wykonaniu kroków wywoływane jest rysowanie z parametrem interpolacji (0-1),
+ * określającym, jaka część następnego kroku już upłynęła.
+ */
+public class GameLoop implements Runnable {
+    /** Najdłuższy czas, jaki może zostać nadrobiony w jednej iteracji (chroni przed "spiralą śmierci"). */
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private final long stepNanos;
+    private final long framePeriodNanos;
+    private final Runnable simulation;
+    private final DoubleConsumer renderer;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Tworzy pętlę gry.
+     * @param ticksPerSecond Liczba kroków symulacji na sekundę.
+     * @param maxFramesPerSecond Maksymalna liczba rysowanych klatek na sekundę.
+     * @param simulation Pojedynczy krok symulacji.
+     * @param renderer Rysowanie klatki; otrzymuje współczynnik interpolacji między poprzednim a bieżącym stanem.
+     */
+    public GameLoop(double ticksPerSecond, double maxFramesPerSecond, Runnable simulation, DoubleConsumer renderer) {
+        this.stepNanos = (long) (1_000_000_000L / ticksPerSecond);
+        this.framePeriodNanos = (long) (1_000_000_000L / maxFramesPerSecond);
+        this.simulation = simulation;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Uruchamia wątek pętli gry (jeśli nie jest już uruchomiony).
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Zatrzymuje pętlę gry i czeka na zakończenie jej wątku.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        while (running) {
+            long frameStart = System.nanoTime();
+            accumulator += Math.min(frameStart - previous, MAX_FRAME_NANOS);
+            previous = frameStart;
+
+            try {
+                while (accumulator >= stepNanos) {
+                    simulation.run();
+                    accumulator -= stepNanos;
+                }
+                renderer.accept((double) accumulator / stepNanos);
+            } catch (RuntimeException e) {
+                // Błąd w pojedynczej klatce nie może zatrzymać całej gry
+                e.printStackTrace();
+            }
+
+            // Oczekiwanie do początku następnej klatki
+            long sleep = frameStart + framePeriodNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+        }
+    }
+
+    /**
+     * Zwraca długość pojedynczego kroku symulacji w nanosekundach.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,296 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Przebieg jednej sesji gry bez interfejsu: świat, minigra, sklep i komunikaty
+ * sterowane maszyną stanów {@link GameState}. Każdy krok przyjmuje wyłącznie maskę
+ * bitową poleceń gracza ({@link #tick(int)}), a wszystkie losowania pochodzą z generatorów
+ * zainicjalizowanych ziarnem świata. Ten sam stan początkowy gracza i ten sam ciąg masek
+ * dają więc zawsze te same pozycje ryb, połowy i pieniądze - dzięki temu sesję można
+ * nagrać ({@link InputLog}) i odtworzyć bez okna, tak szybko, jak pozwala procesor.
+ *
+ * <p>Klasa nie jest bezpieczna wątkowo; {@link BoatGame} wywołuje ją pod blokadą świata.
+ */
+public class GameSession {
+    /** Strzałka w lewo jest trzymana. */
+    public static final int LEFT = 1;
+    /** Strzałka w prawo jest trzymana. */
+    public static final int RIGHT = 1 << 1;
+    /** Spacja została naciśnięta od poprzedniego kroku (hak lub skok w minigrze). */
+    public static final int SPACE = 1 << 2;
+    /** Strzałka w górę jest trzymana (wejście do sklepu). */
+    public static final int UP = 1 << 3;
+    /** Naciśnięto ESC (ucieczka z minigry lub wyjście ze sklepu). */
+    public static final int ESCAPE = 1 << 4;
+    /** Naciśnięto strzałkę w dół (wyjście ze sklepu). */
+    public static final int DOWN = 1 << 5;
+    /** Sprzedaż ryby w sklepie. */
+    public static final int SELL = 1 << 6;
+    /** Zakup ulepszenia haka w sklepie. */
+    public static final int UPGRADE_HOOK = 1 << 7;
+    /** Zakup ulepszenia łodzi w sklepie. */
+    public static final int UPGRADE_BOAT = 1 << 8;
+    /** Reset ulepszeń w sklepie. */
+    public static final int RESET_UPGRADES = 1 << 9;
+    /** Dowolny klawisz lub kliknięcie - zamyka komunikat. */
+    public static final int DISMISS = 1 << 10;
+
+    /** Maksymalny poziom ulepszenia haka. */
+    public static final int MAX_HOOK_UPGRADE_LEVEL = 5;
+    /** Maksymalny poziom ulepszenia łodzi. */
+    public static final int MAX_BOAT_UPGRADE_LEVEL = 5;
+    /** Cena jednej sprzedanej ryby. */
+    public static final int FISH_PRICE = 100;
+
+    private final World world;
+    private final Boat boat;
+    private final PlayerState playerState;
+    private final FishingMinigame minigame;
+    private final Toast toast = new Toast();
+    private final TickInput tickInput = new TickInput();
+    private final int ticksPerSecond;
+    private final int toastTicks; // Czas wyświetlania komunikatu (dwie sekundy)
+    private GameState state = GameState.PLAYING;
+    private GameState toastReturnState = GameState.PLAYING; // Stan przywracany po zniknięciu komunikatu
+    private int hookFloor;
+    private long tickCount = 0;
+    private final int fishTarget; // Zapisywana w dzienniku wejścia, aby odtworzyć ten sam świat
+    private InputLog.Writer recorder;
+
+    /**
+     * Tworzy sesję z nowym światem.
+     * @param width Szerokość świata w pikselach.
+     * @param height Wysokość świata w pikselach.
+     * @param seed Ziarno, z którego pochodzą wszystkie losowania sesji.
+     * @param fishTarget Liczba zwykłych ryb utrzymywana w świecie.
+     * @param ticksPerSecond Liczba kroków na sekundę, od której zależą odliczania czasu.
+     * @param playerState Stan gracza, zmieniany przez połowy i sklep.
+     * @param metrics Rejestr histogramów wydajności.
+     */
+    public GameSession(int width, int height, long seed, int fishTarget, int ticksPerSecond,
+                       PlayerState playerState, Metrics metrics) {
+        this.world = new World(width, height, seed, fishTarget);
+        this.fishTarget = fishTarget;
+        this.boat = world.getBoat();
+        this.playerState = playerState;
+        this.ticksPerSecond = Math.max(1, ticksPerSecond);
+        this.minigame = new FishingMinigame(playerState, this.ticksPerSecond,
+                world.getRandomStreams().forSubsystem("minigame"), metrics);
+        this.toastTicks = 2 * this.ticksPerSecond;
+        this.hookFloor = height;
+        applyUpgradeLevels();
+    }
+
+    /**
+     * Zaczyna nagrywać kolejne kroki sesji do dziennika wejścia, zapisując w nim
+     * bieżący stan świata i gracza jako stan początkowy.
+     * @param path Ścieżka pliku dziennika.
+     * @throws IOException Gdy nie udało się utworzyć pliku.
+     */
+    public void startRecording(Path path) throws IOException {
+        stopRecording();
+        recorder = new InputLog.Writer(path, world.getSeed(), world.getWidth(), world.getHeight(),
+                fishTarget, ticksPerSecond, playerState);
+    }
+
+    /**
+     * Kończy nagrywanie, dopisując do dziennika wynik sesji. Bez nagrywania nic nie robi.
+     */
+    public void stopRecording() {
+        if (recorder != null) {
+            recorder.close(tickCount, stateHash(), playerState);
+            recorder = null;
+        }
+    }
+
+    /**
+     * Ustawia dno dla haka (zwykle wysokość widocznego panelu). Zmiana jest nagrywana razem z krokami.
+     * @param hookFloor Współrzędna Y dna dla haka.
+     */
+    public void setHookFloor(int hookFloor) {
+        this.hookFloor = hookFloor;
+    }
+
+    /**
+     * Wykonuje jeden krok sesji. To, co robi, zależy od stanu gry: świat jest symulowany
+     * tylko podczas gry, minigra ma własną logikę, a komunikaty odliczają czas wyświetlania.
+     * @param input Maska poleceń gracza (stałe {@link #LEFT}, {@link #SPACE} itd.) zebranych od poprzedniego kroku.
+     */
+    public void tick(int input) {
+        if (recorder != null) {
+            recorder.record(input, hookFloor);
+        }
+        tickCount++;
+        switch (state) {
+            case PLAYING:
+                tickWorld(input);
+                break;
+            case MINIGAME:
+                tickMinigame(input);
+                break;
+            case TOAST:
+                if ((input & DISMISS) != 0) {
+                    dismissToast();
+                } else if (!toast.tick()) {
+                    state = toastReturnState;
+                }
+                break;
+            case SHOP:
+                // Świat czeka, dopóki gracz jest w sklepie
+                if ((input & (ESCAPE | DOWN)) != 0) {
+                    leaveShop();
+                } else {
+                    tickShop(input);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Przesuwa świat o krok i przełącza do minigry lub sklepu, gdy świat o to prosi.
+     */
+    private void tickWorld(int input) {
+        world.setHookFloor(hookFloor);
+        // Trzymane klawisze przyspieszają łódź w każdym kroku; hak przełącza każde naciśnięcie spacji
+        tickInput.set((input & LEFT) != 0, (input & RIGHT) != 0, (input & SPACE) != 0, (input & UP) != 0);
+        World.TickResult result = world.tick(tickInput);
+
+        if (result == World.TickResult.CAUGHT_FISH || result == World.TickResult.CAUGHT_RED_FISH) {
+            // Złapana ryba została już usunięta ze świata
+            enterMinigame(result == World.TickResult.CAUGHT_RED_FISH);
+        } else if (result == World.TickResult.ENTER_SHOP) {
+            state = GameState.SHOP;
+        }
+    }
+
+    /**
+     * Uruchamia minigrę; świat stoi, dopóki się nie zakończy.
+     * @param isRedFish True, jeśli złapano specjalną, czerwoną rybę.
+     */
+    void enterMinigame(boolean isRedFish) {
+        minigame.reset(isRedFish);
+        state = GameState.MINIGAME;
+    }
+
+    /**
+     * Wykonuje krok minigry i po jej zakończeniu wraca do gry z komunikatem.
+     */
+    private void tickMinigame(int input) {
+        if ((input & ESCAPE) != 0) {
+            finishMinigame("Ryba uciekła!");
+            return;
+        }
+        if ((input & SPACE) != 0) {
+            minigame.jump();
+        }
+        FishingMinigame.Result result = minigame.tick();
+        if (result == FishingMinigame.Result.WON) {
+            finishMinigame("Złapałeś rybę!");
+        } else if (result == FishingMinigame.Result.LOST) {
+            finishMinigame("Czas minął! Nie złapałeś ryby.");
+        }
+    }
+
+    /**
+     * Kończy minigrę: zwija hak, wznawia odradzanie ryb i pokazuje wynik.
+     */
+    private void finishMinigame(String message) {
+        boat.resetHook();
+        world.restartRespawnTimer();
+        state = GameState.PLAYING;
+        showToast(message);
+    }
+
+    /**
+     * Wykonuje polecenia sklepu wydane od poprzedniego kroku (klawisze lub kliknięcia przycisków).
+     */
+    private void tickShop(int input) {
+        if ((input & SELL) != 0 && !playerState.sellFish(FISH_PRICE)) {
+            showToast("Nie masz żadnych ryb do sprzedania!");
+        }
+        if ((input & UPGRADE_HOOK) != 0 && !playerState.upgradeHook(MAX_HOOK_UPGRADE_LEVEL)) {
+            showToast(playerState.getHookUpgradeLevel() >= MAX_HOOK_UPGRADE_LEVEL
+                    ? "Haczyk jest już maksymalnie ulepszony!" : "Niewystarczająco pieniędzy!");
+        }
+        if ((input & UPGRADE_BOAT) != 0 && !playerState.upgradeBoat(MAX_BOAT_UPGRADE_LEVEL)) {
+            showToast(playerState.getBoatUpgradeLevel() >= MAX_BOAT_UPGRADE_LEVEL
+                    ? "Łódź jest już maksymalnie ulepszona!" : "Niewystarczająco pieniędzy!");
+        }
+        if ((input & RESET_UPGRADES) != 0) {
+            playerState.resetUpgrades(); // Zwrot i wyzerowanie ulepszeń jako jedna transakcja
+            showToast("Ulepszenia zostały zresetowane!");
+        }
+        if ((input & (UPGRADE_HOOK | UPGRADE_BOAT | RESET_UPGRADES)) != 0) {
+            applyUpgradeLevels();
+        }
+    }
+
+    /**
+     * Przenosi poziomy ulepszeń haka i łodzi ze stanu gracza na łódź.
+     */
+    private void applyUpgradeLevels() {
+        boat.setHookUpgradeLevel(playerState.getHookUpgradeLevel());
+        boat.setBoatUpgradeLevel(playerState.getBoatUpgradeLevel());
+    }
+
+    /**
+     * Pokazuje komunikat nad grą. Gra wraca do bieżącego stanu, gdy komunikat zniknie
+     * albo gracz naciśnie klawisz lub kliknie.
+     * @param message Treść komunikatu.
+     */
+    public void showToast(String message) {
+        if (state != GameState.TOAST) {
+            toastReturnState = state;
+        }
+        toast.show(message, toastTicks);
+        state = GameState.TOAST;
+    }
+
+    /**
+     * Ukrywa komunikat i wraca do stanu, z którego został pokazany.
+     */
+    private void dismissToast() {
+        toast.dismiss();
+        state = toastReturnState;
+    }
+
+    /**
+     * Opuszcza sklep, odsuwając łódź, aby gracz nie wszedł do niego ponownie od razu.
+     */
+    private void leaveShop() {
+        world.moveBoatAwayFromShop();
+        state = GameState.PLAYING;
+    }
+
+    /**
+     * Zwraca skrót stanu symulacji: kroku, stanu gry, łodzi, haka, wszystkich ryb i stanu gracza.
+     * Dwa przebiegi z tym samym skrótem doszły do tego samego stanu.
+     */
+    public long stateHash() {
+        long h = tickCount;
+        h = h * 31 + state.ordinal();
+        h = h * 31 + boat.getBoatX();
+        h = h * 31 + boat.getHookX();
+        h = h * 31 + boat.getHookY();
+        h = h * 31 + (boat.isHookDropped() ? 1 : 0);
+        FishPool fish = world.getFish();
+        for (int i = 0; i < fish.size(); i++) {
+            h = h * 31 + fish.getX(i);
+            h = h * 31 + fish.getY(i);
+            h = h * 31 + fish.getSpeed(i);
+            h = h * 31 + fish.getSpecies(i);
+        }
+        h = h * 31 + playerState.getMoney();
+        h = h * 31 + playerState.getFishCaught();
+        return h;
+    }
+
+    public World getWorld() { return world; }
+    public PlayerState getPlayerState() { return playerState; }
+    public FishingMinigame getMinigame() { return minigame; }
+    public Toast getToast() { return toast; }
+    public GameState getState() { return state; }
+    public GameState getToastReturnState() { return toastReturnState; }
+    public long getTickCount() { return tickCount; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+}
@@ -0,0 +1,16 @@
+/**
+ * Stan gry decydujący o tym, co robi krok symulacji, które nakładki są rysowane
+ * na powierzchni gry i dokąd trafia wejście gracza.
+ * Minigra, sklep i komunikaty są nakładkami rysowanymi w głównym oknie, więc
+ * przejście między stanami to zmiana jednego pola - bez tworzenia nowych okien.
+ */
+public enum GameState {
+    /** Zwykła rozgrywka: świat jest symulowany, a klawisze sterują łodzią. */
+    PLAYING,
+    /** Minigra wędkarska po złapaniu ryby; świat jest wstrzymany. */
+    MINIGAME,
+    /** Sklep otwarty przy przystani; świat jest wstrzymany. */
+    SHOP,
+    /** Komunikat dla gracza; po jego zniknięciu gra wraca do poprzedniego stanu. */
+    TOAST
+}
@@ -0,0 +1,145 @@
+/**
+ * Histogram wartości o stałej liczbie kubełków (czasy w nanosekundach, liczby bajtów).
+ * Kubełki są logarytmiczno-liniowe: każdy przedział [2^k, 2^(k+1)) jest podzielony
+ * na {@value #SUB_BUCKETS} równych części, więc błąd względny percentyla nie przekracza
+ * około 6%, a cały zakres wartości typu long mieści się w {@value #BUCKETS} licznikach.
+ * Zapis próbki to kilka operacji bitowych i inkrementacja licznika - bez alokacji i blokad.
+ *
+ * <p>Próbki powinny pochodzić z jednego wątku (np. pętli gry); odczyt z innego wątku
+ * (nakładka diagnostyczna, eksport CSV) daje wynik przybliżony, co wystarcza do diagnostyki.
+ */
+public class Histogram {
+    /** Liczba podziałów każdej potęgi dwójki. */
+    public static final int SUB_BUCKETS = 16;
+    /** Łączna liczba kubełków. */
+    public static final int BUCKETS = 61 * SUB_BUCKETS;
+
+    private static final int SUB_BITS = 4;
+
+    private final String name;
+    private final String unit;
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Tworzy pusty histogram.
+     * @param name Nazwa mierzonej wielkości, np. "tick".
+     * @param unit Jednostka wartości: "ns" dla czasów, "B" dla bajtów.
+     */
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    /**
+     * Rejestruje próbkę. Wartości ujemne są traktowane jak zero.
+     * @param value Wartość próbki.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketOf(value)]++;
+        count++;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Zwraca numer kubełka dla wartości.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Zwraca najmniejszą wartość należącą do kubełka.
+     * @param bucket Numer kubełka.
+     */
+    public static long bucketLow(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Zwraca największą wartość należącą do kubełka.
+     * @param bucket Numer kubełka.
+     */
+    public static long bucketHigh(int bucket) {
+        return bucket + 1 < BUCKETS ? bucketLow(bucket + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Zwraca przybliżony percentyl (środek kubełka, w którym leży, ograniczony maksimum).
+     * @param percentile Percentyl z zakresu 0-100.
+     * @return Wartość percentyla lub 0, gdy brak próbek.
+     */
+    public long percentile(double percentile) {
+        long n = count;
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long low = bucketLow(i);
+                return Math.min(max, low + (bucketHigh(i) - low) / 2);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Czyści wszystkie próbki.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Zwraca liczbę próbek w kubełku.
+     * @param bucket Numer kubełka.
+     */
+    public long getCountAt(int bucket) {
+        return counts[bucket];
+    }
+
+    public long getMean() {
+        long n = count;
+        return n == 0 ? 0 : total / n;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
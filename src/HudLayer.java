@@ -0,0 +1,101 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Panel interfejsu (HUD) z liczbą złapanych ryb i stanem pieniędzy.
+ * Cały panel - tło, ikony i tekst - jest renderowany do obrazu tylko wtedy,
+ * gdy zmieni się któraś z wyświetlanych wartości. W pozostałych klatkach
+ * rysowanie HUD-a to jedno wywołanie {@code drawImage}, bez tworzenia czcionek,
+ * sklejania napisów i ponownego układania glifów.
+ */
+public class HudLayer {
+    /** Szerokość panelu (wraz z jednopikselową ramką). */
+    public static final int WIDTH = 241;
+    /** Wysokość panelu (wraz z jednopikselową ramką). */
+    public static final int HEIGHT = 71;
+
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.BOLD, 14);
+    private static final Font COIN_FONT = new Font("Monospaced", Font.BOLD, 8);
+    private static final Color PANEL_COLOR = new Color(0, 0, 0, 100);
+
+    private final FishSprites fishSprites;
+    private BufferedImage image;
+    private int cachedFishCaught;
+    private int cachedMoney;
+    private int rebuildCount = 0;
+
+    /**
+     * Tworzy panel HUD.
+     * @param fishSprites Pamięć podręczna grafik ryb, z której pochodzi ikona ryby.
+     */
+    public HudLayer(FishSprites fishSprites) {
+        this.fishSprites = fishSprites;
+    }
+
+    /**
+     * Rysuje panel, odświeżając jego obraz tylko po zmianie wyświetlanych wartości.
+     * @param g Kontekst graficzny klatki.
+     * @param x Lewa krawędź panelu.
+     * @param y Górna krawędź panelu.
+     * @param fishCaught Liczba złapanych ryb.
+     * @param money Stan pieniędzy gracza.
+     */
+    public void draw(Graphics2D g, int x, int y, int fishCaught, int money) {
+        if (image == null || fishCaught != cachedFishCaught || money != cachedMoney) {
+            rebuild(g.getDeviceConfiguration(), fishCaught, money);
+        }
+        g.drawImage(image, x, y, null);
+    }
+
+    /**
+     * Renderuje panel od nowa dla podanych wartości.
+     */
+    private void rebuild(GraphicsConfiguration config, int fishCaught, int money) {
+        if (image == null) {
+            image = config.createCompatibleImage(WIDTH, HEIGHT, Transparency.TRANSLUCENT);
+        }
+        Graphics2D g2d = image.createGraphics();
+        try {
+            // Wyczyszczenie poprzedniej zawartości do pełnej przezroczystości
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+            g2d.setColor(PANEL_COLOR);
+            g2d.fillRect(0, 0, 240, 70);
+            g2d.setColor(Color.YELLOW);
+            g2d.drawRect(0, 0, 240, 70);
+
+            // Ikona ryby obok liczby złapanych ryb (skierowana w lewo, w stronę tekstu)
+            g2d.drawImage(fishSprites.get(config, FishSprites.ORANGE_FISH, 20, 12, true), 10, 5, null);
+            g2d.setColor(Color.ORANGE);
+            g2d.setFont(TEXT_FONT);
+            g2d.drawString("Złapane ryby: " + fishCaught, 35, 20);
+
+            // Ikona monety obok stanu pieniędzy
+            g2d.setColor(Color.YELLOW);
+            g2d.fillOval(10, 25, 12, 12);
+            g2d.setColor(Color.BLACK);
+            g2d.drawOval(10, 25, 12, 12);
+            g2d.setFont(COIN_FONT);
+            g2d.drawString("$", 14, 34);
+
+            g2d.setColor(Color.YELLOW);
+            g2d.setFont(TEXT_FONT);
+            g2d.drawString("Pieniądze: " + money + " PLN", 35, 40);
+        } finally {
+            g2d.dispose();
+        }
+        cachedFishCaught = fishCaught;
+        cachedMoney = money;
+        rebuildCount++;
+    }
+
+    /**
+     * Zwraca, ile razy obraz panelu był renderowany od nowa (do diagnostyki i benchmarków).
+     */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+}
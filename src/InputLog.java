@@ -0,0 +1,262 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Zwarty, binarny dziennik wejścia jednej sesji gry: ziarno i parametry świata, stan gracza
+ * na początku sesji oraz maski poleceń z kolejnych kroków ({@link GameSession#tick(int)}).
+ * Kolejne kroki z tą samą maską i tym samym dnem haka są zapisywane jako jedna seria,
+ * więc minuty gry zajmują zwykle kilka kilobajtów. Odtworzenie dziennika przez nową
+ * {@link GameSession} daje ten sam przebieg, co nagrana gra.
+ * Format (liczby stałej długości w kolejności big-endian, varint jak w LEB128):
+ * <pre>
+ * int magic        "FLOG"
+ * int version      wersja formatu
+ * long seed        ziarno świata
+ * int width, height, fishTarget, ticksPerSecond
+ * int money, fishCaught, hookUpgradeLevel, boatUpgradeLevel, hookUpgradeCost, boatUpgradeCost
+ * serie:  varint runLength (&gt; 0), varint mask, varint hookFloor
+ * varint 0         koniec serii
+ * long ticks, long stateHash, int money, int fishCaught   wynik sesji
+ * </pre>
+ * Wynik sesji jest dopisywany przy zamknięciu gry; dziennik przerwanej sesji kończy się
+ * na ostatniej zapisanej serii i można go odtworzyć, ale nie da się sprawdzić wyniku.
+ */
+public final class InputLog {
+    private static final int MAGIC = 0x464C4F47; // "FLOG"
+    private static final int VERSION = 5; // Zmieniana także wtedy, gdy ten sam zapis dawałby inny przebieg symulacji
+
+    private InputLog() {}
+
+    /**
+     * Zapisuje dziennik sesji. Metoda {@link #record(int, int)} jest wywoływana w każdym kroku
+     * i nie alokuje pamięci; błąd zapisu jest zgłaszany raz, po czym nagrywanie jest przerywane.
+     */
+    public static class Writer {
+        private final Path path;
+        private final DataOutputStream out;
+        private int runMask;
+        private int runHookFloor;
+        private int runLength = 0;
+        private boolean failed = false;
+
+        /**
+         * Tworzy plik dziennika i zapisuje jego nagłówek.
+         * @param path Ścieżka pliku dziennika.
+         * @param seed Ziarno świata.
+         * @param width Szerokość świata.
+         * @param height Wysokość świata.
+         * @param fishTarget Liczba zwykłych ryb w świecie.
+         * @param ticksPerSecond Liczba kroków na sekundę.
+         * @param playerState Stan gracza na początku sesji.
+         * @throws IOException Gdy nie udało się utworzyć pliku.
+         */
+        public Writer(Path path, long seed, int width, int height, int fishTarget, int ticksPerSecond,
+                      PlayerState playerState) throws IOException {
+            this.path = path;
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(fishTarget);
+            out.writeInt(ticksPerSecond);
+            synchronized (playerState) {
+                out.writeInt(playerState.getMoney());
+                out.writeInt(playerState.getFishCaught());
+                out.writeInt(playerState.getHookUpgradeLevel());
+                out.writeInt(playerState.getBoatUpgradeLevel());
+                out.writeInt(playerState.getHookUpgradeCost());
+                out.writeInt(playerState.getBoatUpgradeCost());
+            }
+        }
+
+        /**
+         * Dopisuje jeden krok sesji.
+         * @param mask Maska poleceń gracza w tym kroku.
+         * @param hookFloor Dno dla haka w tym kroku.
+         */
+        public void record(int mask, int hookFloor) {
+            if (runLength > 0 && mask == runMask && hookFloor == runHookFloor && runLength < Integer.MAX_VALUE) {
+                runLength++;
+                return;
+            }
+            writeRun();
+            runMask = mask;
+            runHookFloor = hookFloor;
+            runLength = 1;
+        }
+
+        /**
+         * Zapisuje bieżącą serię kroków.
+         */
+        private void writeRun() {
+            if (runLength == 0 || failed) {
+                return;
+            }
+            try {
+                writeVarint(out, runLength);
+                writeVarint(out, runMask);
+                writeVarint(out, runHookFloor);
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Błąd zapisu dziennika wejścia " + path + ", nagrywanie przerwane");
+                failed = true;
+            }
+        }
+
+        /**
+         * Zapisuje ostatnią serię i wynik sesji, po czym zamyka plik.
+         * @param ticks Liczba kroków sesji.
+         * @param stateHash Skrót stanu symulacji po ostatnim kroku ({@link GameSession#stateHash()}).
+         * @param playerState Stan gracza na końcu sesji.
+         */
+        public void close(long ticks, long stateHash, PlayerState playerState) {
+            writeRun();
+            runLength = 0;
+            try {
+                if (!failed) {
+                    writeVarint(out, 0);
+                    out.writeLong(ticks);
+                    out.writeLong(stateHash);
+                    out.writeInt(playerState.getMoney());
+                    out.writeInt(playerState.getFishCaught());
+                }
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Błąd zamykania dziennika wejścia " + path);
+            }
+        }
+    }
+
+    /**
+     * Odczytuje dziennik sesji: nagłówek przy otwarciu, a następnie kolejne serie kroków
+     * metodą {@link #next()}. Po ostatniej serii dostępny jest wynik nagranej sesji.
+     */
+    public static class Reader implements Closeable {
+        private final DataInputStream in;
+        private final long seed;
+        private final int width, height, fishTarget, ticksPerSecond;
+        private final int money, fishCaught, hookUpgradeLevel, boatUpgradeLevel, hookUpgradeCost, boatUpgradeCost;
+        private int runLength, mask, hookFloor;
+        private boolean hasResult = false;
+        private long resultTicks, resultStateHash;
+        private int resultMoney, resultFishCaught;
+
+        /**
+         * Otwiera dziennik i wczytuje jego nagłówek.
+         * @param path Ścieżka pliku dziennika.
+         * @throws IOException Gdy pliku nie da się odczytać lub nie jest dziennikiem wejścia.
+         */
+        public Reader(Path path) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+            if (in.readInt() != MAGIC) {
+                in.close();
+                throw new IOException("Plik " + path + " nie jest dziennikiem wejścia");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("Nieobsługiwana wersja dziennika wejścia: " + version);
+            }
+            seed = in.readLong();
+            width = in.readInt();
+            height = in.readInt();
+            fishTarget = in.readInt();
+            ticksPerSecond = in.readInt();
+            money = in.readInt();
+            fishCaught = in.readInt();
+            hookUpgradeLevel = in.readInt();
+            boatUpgradeLevel = in.readInt();
+            hookUpgradeCost = in.readInt();
+            boatUpgradeCost = in.readInt();
+        }
+
+        /**
+         * Wczytuje kolejną serię kroków.
+         * @return False po ostatniej serii (także gdy plik urywa się po przerwanej sesji).
+         * @throws IOException Gdy odczyt pliku się nie powiódł.
+         */
+        public boolean next() throws IOException {
+            try {
+                runLength = readVarint(in);
+                if (runLength == 0) {
+                    resultTicks = in.readLong();
+                    resultStateHash = in.readLong();
+                    resultMoney = in.readInt();
+                    resultFishCaught = in.readInt();
+                    hasResult = true;
+                    return false;
+                }
+                mask = readVarint(in);
+                hookFloor = readVarint(in);
+                return true;
+            } catch (EOFException e) {
+                runLength = 0; // Dziennik przerwanej sesji - bez wyniku
+                return false;
+            }
+        }
+
+        /**
+         * Tworzy sesję w stanie początkowym nagranej gry, ze świeżym stanem gracza
+         * niezapisywanym na dysk.
+         * @param metrics Rejestr histogramów dla odtwarzanej sesji.
+         */
+        public GameSession createSession(Metrics metrics) {
+            PlayerState playerState = new PlayerState();
+            playerState.update(state -> {
+                state.setMoney(money);
+                state.setFishCaught(fishCaught);
+                state.setHookUpgradeLevel(hookUpgradeLevel);
+                state.setBoatUpgradeLevel(boatUpgradeLevel);
+                state.setHookUpgradeCost(hookUpgradeCost);
+                state.setBoatUpgradeCost(boatUpgradeCost);
+            });
+            return new GameSession(width, height, seed, fishTarget, ticksPerSecond, playerState, metrics);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        public long getSeed() { return seed; }
+        public int getTicksPerSecond() { return ticksPerSecond; }
+        public int getRunLength() { return runLength; }
+        public int getMask() { return mask; }
+        public int getHookFloor() { return hookFloor; }
+        public boolean hasResult() { return hasResult; }
+        public long getResultTicks() { return resultTicks; }
+        public long getResultStateHash() { return resultStateHash; }
+        public int getResultMoney() { return resultMoney; }
+        public int getResultFishCaught() { return resultFishCaught; }
+    }
+
+    /**
+     * Zapisuje nieujemną liczbę w 7-bitowych grupach, od najmłodszej.
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Odczytuje liczbę zapisaną przez {@link #writeVarint(DataOutputStream, int)}.
+     */
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Uszkodzona liczba w dzienniku wejścia");
+    }
+}
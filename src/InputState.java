@@ -0,0 +1,131 @@
+/**
+ * Stan klawiatury odczytywany raz na krok symulacji.
+ * Zdarzenia klawiatury jedynie zapisują, które klawisze są wciśnięte, a każdy krok
+ * odczytuje ten stan - dzięki temu ruch łodzi zależy od czasu trzymania klawisza,
+ * a nie od częstotliwości autopowtarzania systemu i jego początkowego opóźnienia.
+ * Oprócz stanu wciśnięcia zapamiętywane są naciśnięcia od poprzedniego kroku,
+ * więc krótkie stuknięcie między krokami nie ginie, a autopowtarzanie nie jest
+ * traktowane jako kolejne naciśnięcie.
+ *
+ * <p>Mierzony jest też czas od zdarzenia wejścia do wyświetlenia pierwszej klatki,
+ * która pokazuje jego skutek (zdarzenie - krok symulacji - klatka).
+ *
+ * <p>Klasa nie jest synchronizowana - wywołujący odpowiada za wspólną blokadę
+ * (w grze jest to blokada świata).
+ */
+public class InputState {
+    /** Liczba śledzonych kodów klawiszy (wszystkie używane przez grę mieszczą się w tym zakresie). */
+    public static final int KEY_COUNT = 256;
+
+    private final boolean[] down = new boolean[KEY_COUNT];
+    private final boolean[] pressed = new boolean[KEY_COUNT]; // Naciśnięte od poprzedniego kroku
+    private boolean anyPressed = false;
+
+    private long pendingInputNanos = 0; // Najstarsze zdarzenie, którego nie odczytał jeszcze krok
+    private long appliedInputNanos = 0; // Najstarsze zdarzenie odczytane przez krok, czekające na klatkę
+    private final LatencyMeter latency = new LatencyMeter("input-to-frame");
+
+    /**
+     * Zapisuje naciśnięcie klawisza. Autopowtórzenia trzymanego klawisza są pomijane.
+     * @param keyCode Kod klawisza.
+     * @param nanos Czas zdarzenia (System.nanoTime()).
+     */
+    public void keyPressed(int keyCode, long nanos) {
+        if (keyCode < 0 || keyCode >= KEY_COUNT || down[keyCode]) {
+            return;
+        }
+        down[keyCode] = true;
+        pressed[keyCode] = true;
+        anyPressed = true;
+        markInput(nanos);
+    }
+
+    /**
+     * Zapisuje puszczenie klawisza.
+     * @param keyCode Kod klawisza.
+     * @param nanos Czas zdarzenia (System.nanoTime()).
+     */
+    public void keyReleased(int keyCode, long nanos) {
+        if (keyCode < 0 || keyCode >= KEY_COUNT || !down[keyCode]) {
+            return;
+        }
+        down[keyCode] = false;
+        markInput(nanos);
+    }
+
+    /**
+     * Puszcza wszystkie klawisze, np. po utracie fokusu, gdy zdarzenia puszczenia nie dotrą.
+     */
+    public void releaseAll() {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            down[i] = false;
+        }
+    }
+
+    private void markInput(long nanos) {
+        if (pendingInputNanos == 0) {
+            pendingInputNanos = nanos;
+        }
+    }
+
+    /**
+     * Sprawdza, czy klawisz jest trzymany lub został stuknięty od poprzedniego kroku.
+     * @param keyCode Kod klawisza.
+     */
+    public boolean isHeld(int keyCode) {
+        return keyCode >= 0 && keyCode < KEY_COUNT && (down[keyCode] || pressed[keyCode]);
+    }
+
+    /**
+     * Sprawdza, czy klawisz został naciśnięty od poprzedniego kroku.
+     * @param keyCode Kod klawisza.
+     */
+    public boolean wasPressed(int keyCode) {
+        return keyCode >= 0 && keyCode < KEY_COUNT && pressed[keyCode];
+    }
+
+    /**
+     * Sprawdza, czy od poprzedniego kroku naciśnięto jakikolwiek klawisz.
+     */
+    public boolean anyPressed() {
+        return anyPressed;
+    }
+
+    /**
+     * Kończy krok: czyści naciśnięcia i oznacza zebrane zdarzenia jako odczytane
+     * przez symulację - od tej chwili czekają na wyświetlenie klatki.
+     */
+    public void endTick() {
+        if (anyPressed) {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                pressed[i] = false;
+            }
+            anyPressed = false;
+        }
+        if (pendingInputNanos != 0) {
+            if (appliedInputNanos == 0) {
+                appliedInputNanos = pendingInputNanos;
+            }
+            pendingInputNanos = 0;
+        }
+    }
+
+    /**
+     * Informuje, że klatka została wyświetlona; rejestruje opóźnienie najstarszego
+     * zdarzenia, którego skutek ta klatka już pokazuje.
+     * @param nanos Czas wyświetlenia klatki (System.nanoTime()).
+     */
+    public void frameShown(long nanos) {
+        if (appliedInputNanos != 0) {
+            latency.record(nanos - appliedInputNanos);
+            appliedInputNanos = 0;
+        }
+    }
+
+    /**
+     * Zwraca pomiar czasu od zdarzenia wejścia do wyświetlenia klatki z jego skutkiem.
+     */
+    public LatencyMeter getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+/**
+ * Prosty pomiar opóźnień: liczba próbek, średnia i maksimum od początku pomiaru
+ * oraz percentyle liczone z ostatnich {@value #WINDOW} próbek.
+ * Próbki trafiają do tablicy cyklicznej, więc rejestrowanie nie alokuje pamięci.
+ * Metody są synchronizowane - próbki mogą pochodzić z innego wątku niż odczyt.
+ */
+public class LatencyMeter {
+    /** Liczba ostatnich próbek, z których liczone są percentyle. */
+    public static final int WINDOW = 1024;
+
+    private final String name;
+    private final long[] samples = new long[WINDOW];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    /**
+     * Tworzy pomiar opóźnienia.
+     * @param name Nazwa mierzonej operacji, używana w podsumowaniu.
+     */
+    public LatencyMeter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Rejestruje pojedynczą próbkę.
+     * @param nanos Zmierzone opóźnienie w nanosekundach.
+     */
+    public synchronized void record(long nanos) {
+        samples[(int) (count % WINDOW)] = nanos;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * Zwraca percentyl z ostatnich próbek.
+     * @param percentile Percentyl z zakresu 0-100.
+     * @return Wartość percentyla w nanosekundach lub 0, gdy brak próbek.
+     */
+    public synchronized long percentileNanos(double percentile) {
+        int size = (int) Math.min(count, WINDOW);
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Zwraca jednowierszowe podsumowanie pomiaru w milisekundach.
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: n=%d mean=%.3f ms p50=%.3f ms p99=%.3f ms max=%.3f ms", name, count,
+                getMeanNanos() / 1e6, percentileNanos(50) / 1e6, percentileNanos(99) / 1e6, maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,164 @@
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejestr histogramów wydajności gry: czas kroku, rysowania i poszczególnych warstw,
+ * pauzy GC oraz alokacje. Histogramy są tworzone przy starcie, a w trakcie gry
+ * jedynie zapisywane, więc pomiar nie alokuje pamięci.
+ *
+ * <p>Pauzy GC są odbierane z powiadomień {@code GarbageCollectorMXBean}, a alokacje
+ * odczytywane z {@code ThreadMXBean.getThreadAllocatedBytes} dla wątku wywołującego.
+ * Zebrane dane można wyeksportować do pliku CSV ({@link #writeCsv(Path)}) do analizy poza grą.
+ */
+public class Metrics {
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final com.sun.management.ThreadMXBean threadBean;
+    private Histogram gcPauses;
+    private NotificationListener gcListener; // Zarejestrowany przez installGcListener, do wyrejestrowania
+
+    public Metrics() {
+        com.sun.management.ThreadMXBean bean = null;
+        try {
+            bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            bean.setThreadAllocatedMemoryEnabled(true);
+        } catch (RuntimeException e) {
+            // Maszyna wirtualna bez pomiaru alokacji - histogram alokacji pozostanie pusty
+            e.printStackTrace();
+            bean = null;
+        }
+        threadBean = bean;
+    }
+
+    /**
+     * Zwraca histogram czasu o podanej nazwie, tworząc go przy pierwszym użyciu.
+     * Histogramy należy pobierać przy tworzeniu obiektów, a nie w każdej klatce.
+     * @param name Nazwa mierzonej wielkości.
+     * @return Histogram z wartościami w nanosekundach.
+     */
+    public Histogram timer(String name) {
+        return histogram(name, "ns");
+    }
+
+    /**
+     * Zwraca histogram o podanej nazwie i jednostce, tworząc go przy pierwszym użyciu.
+     * @param name Nazwa mierzonej wielkości.
+     * @param unit Jednostka wartości ("ns" lub "B").
+     * @return Histogram zarejestrowany pod tą nazwą.
+     */
+    public synchronized Histogram histogram(String name, String unit) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(key, unit));
+    }
+
+    /**
+     * Zwraca wszystkie zarejestrowane histogramy w kolejności rejestracji.
+     */
+    public synchronized List<Histogram> getHistograms() {
+        return new ArrayList<>(histograms.values());
+    }
+
+    /**
+     * Zaczyna zapisywać długość pauz każdego odśmiecania do histogramu "gc.pause".
+     */
+    public void installGcListener() {
+        gcPauses = histogram("gc.pause", "ns");
+        uninstallGcListener();
+        NotificationListener listener = (Notification notification, Object handback) -> {
+            if (GC_NOTIFICATION.equals(notification.getType())) {
+                CompositeData info = (CompositeData) notification.getUserData();
+                CompositeData gcInfo = (CompositeData) info.get("gcInfo");
+                long durationMillis = (Long) gcInfo.get("duration");
+                synchronized (gcPauses) { // Kilka kolektorów może zgłaszać pauzy z różnych wątków
+                    gcPauses.record(durationMillis * 1_000_000L);
+                }
+            }
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+            }
+        }
+        gcListener = listener;
+    }
+
+    /**
+     * Przestaje odbierać powiadomienia o pauzach GC. Bez zarejestrowanego odbiornika nic nie robi.
+     */
+    public void uninstallGcListener() {
+        if (gcListener == null) {
+            return;
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // Kolektor pojawił się po rejestracji odbiornika - nie ma czego usuwać
+                }
+            }
+        }
+        gcListener = null;
+    }
+
+    /**
+     * Zwraca liczbę bajtów zaalokowanych dotąd przez bieżący wątek lub -1, gdy pomiar jest niedostępny.
+     */
+    public long currentThreadAllocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Zapisuje wszystkie histogramy do pliku CSV: jeden wiersz na niepusty kubełek,
+     * z kolumnami metric, unit, bucket_low, bucket_high, count.
+     * @param path Ścieżka pliku wynikowego.
+     */
+    public void writeCsv(Path path) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("metric,unit,bucket_low,bucket_high,count");
+            writer.newLine();
+            for (Histogram histogram : getHistograms()) {
+                for (int i = 0; i < Histogram.BUCKETS; i++) {
+                    long count = histogram.getCountAt(i);
+                    if (count > 0) {
+                        writer.write(histogram.getName() + "," + histogram.getUnit() + ","
+                                + Histogram.bucketLow(i) + "," + Histogram.bucketHigh(i) + "," + count);
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Błąd zapisu metryk do pliku " + path);
+        }
+    }
+
+    /**
+     * Zwraca jednowierszowe podsumowanie histogramu (czasy w ms, bajty bez zmian).
+     * @param histogram Podsumowywany histogram.
+     */
+    public static String summary(Histogram histogram) {
+        if ("ns".equals(histogram.getUnit())) {
+            return String.format("%-16s n=%-7d p50=%8.3f ms p99=%8.3f ms max=%8.3f ms", histogram.getName(),
+                    histogram.getCount(), histogram.percentile(50) / 1e6, histogram.percentile(99) / 1e6,
+                    histogram.getMax() / 1e6);
+        }
+        return String.format("%-16s n=%-7d p50=%9d %s p99=%9d %s max=%9d %s", histogram.getName(),
+                histogram.getCount(), histogram.percentile(50), histogram.getUnit(), histogram.percentile(99),
+                histogram.getUnit(), histogram.getMax(), histogram.getUnit());
+    }
+}
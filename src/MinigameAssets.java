@@ -0,0 +1,85 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Wspólna pamięć podręczna grafik minigry wędkarskiej.
+ * Pliki PNG są dekodowane tylko raz - najlepiej w tle zaraz po starcie gry
+ * ({@link #preload()}) - zamiast przy każdym złapaniu ryby. Obrazy są przy okazji
+ * konwertowane do formatu zgodnego z ekranem, co przyspiesza ich rysowanie.
+ * Gdy pliku brakuje, odpowiedni obraz ma wartość null, a minigra rysuje zastępczy prostokąt.
+ */
+public final class MinigameAssets {
+    private static boolean loaded = false;
+    private static BufferedImage barImage;
+    private static BufferedImage fishImage;
+    private static BufferedImage redFishImage;
+
+    private MinigameAssets() {
+    }
+
+    /**
+     * Rozpoczyna dekodowanie grafik w wątku w tle, aby były gotowe przed pierwszym złapaniem ryby.
+     */
+    public static void preload() {
+        Thread loader = new Thread(MinigameAssets::ensureLoaded, "minigame-assets");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Wczytuje grafiki, jeśli nie zostały jeszcze wczytane. Jeśli wczytywanie trwa
+     * w innym wątku, czeka na jego zakończenie.
+     */
+    private static synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        try {
+            barImage = toCompatible(ImageIO.read(new File("minigame_bar_pixel.png")));
+            fishImage = toCompatible(ImageIO.read(new File("minigame_fish_pixel.png")));
+            redFishImage = toCompatible(ImageIO.read(new File("minigame_red_fish_pixel.png")));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Błąd wczytywania obrazów pixel art dla minigry!");
+        }
+        loaded = true; // Nieudane wczytanie nie jest ponawiane przy każdym złapaniu ryby
+    }
+
+    /**
+     * Kopiuje obraz do formatu zgodnego z domyślnym ekranem (bez zmian w trybie bez ekranu).
+     */
+    private static BufferedImage toCompatible(BufferedImage image) {
+        if (image == null || GraphicsEnvironment.isHeadless()) {
+            return image;
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        BufferedImage compatible = config.createCompatibleImage(image.getWidth(), image.getHeight(),
+                image.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return compatible;
+    }
+
+    public static synchronized BufferedImage getBarImage() {
+        ensureLoaded();
+        return barImage;
+    }
+
+    public static synchronized BufferedImage getFishImage() {
+        ensureLoaded();
+        return fishImage;
+    }
+
+    public static synchronized BufferedImage getRedFishImage() {
+        ensureLoaded();
+        return redFishImage;
+    }
+}
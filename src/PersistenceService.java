@@ -0,0 +1,176 @@
+/**
+ * Zapis stanu gracza w tle (write-behind).
+ * Zmiany stanu trafiają od razu do pamięci ({@link PlayerState}), a usługa - zarejestrowana
+ * jako słuchacz stanu - jedynie odnotowuje potrzebę zapisu, bez dotykania dysku.
+ * Osobny wątek zapisujący czeka, aż od pierwszej niezapisanej zmiany minie
+ * ograniczony czas, i zapisuje cały stan jednym trwałym zapisem, łącząc w ten
+ * sposób serie zmian (np. kilka kliknięć w sklepie) w jedną operację dyskową.
+ * Przy zamykaniu okna {@link #flush()} zapisuje zaległe zmiany natychmiast.
+ */
+public class PersistenceService implements Runnable, PlayerState.Listener {
+    private final SaveFile saveFile;
+    private final PlayerState state;
+    private final long maxDelayNanos;
+    private final LatencyMeter latency = new LatencyMeter("save");
+    private final Object lock = new Object();
+
+    private boolean dirty = false;
+    private long firstDirtyNanos;
+    private long requestCount = 0;
+    private long writeCount = 0;
+    private boolean running = false;
+    private Thread thread;
+
+    /**
+     * Tworzy usługę zapisu w tle.
+     * @param saveFile Plik zapisu.
+     * @param state Utrwalany stan gracza.
+     * @param maxDelayMillis Najdłuższy czas między pierwszą niezapisaną zmianą a jej zapisem.
+     */
+    public PersistenceService(SaveFile saveFile, PlayerState state, long maxDelayMillis) {
+        this.saveFile = saveFile;
+        this.state = state;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000L;
+    }
+
+    /**
+     * Uruchamia wątek zapisujący (jeśli nie jest już uruchomiony).
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            thread = new Thread(this, "save-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Zatrzymuje wątek zapisujący, zapisując wcześniej zaległe zmiany.
+     */
+    public void stop() {
+        Thread writer;
+        synchronized (lock) {
+            running = false;
+            writer = thread;
+            thread = null;
+            lock.notifyAll();
+        }
+        if (writer != null && writer != Thread.currentThread()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Zgłasza, że stan w pamięci zmienił się i powinien zostać zapisany.
+     * Nie wykonuje żadnych operacji dyskowych, więc można ją wywoływać z wątku EDT.
+     */
+    public void requestSave() {
+        synchronized (lock) {
+            requestCount++;
+            if (!dirty) {
+                dirty = true;
+                firstDirtyNanos = System.nanoTime();
+                lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void playerStateChanged(PlayerState state) {
+        requestSave();
+    }
+
+    /**
+     * Natychmiast zapisuje zaległe zmiany w wątku wywołującym (np. przy zamykaniu okna).
+     */
+    public void flush() {
+        long dirtySince;
+        synchronized (lock) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            dirtySince = firstDirtyNanos;
+        }
+        write(dirtySince);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            long dirtySince;
+            synchronized (lock) {
+                try {
+                    // Oczekiwanie na pierwszą zmianę, a potem na upływ limitu opóźnienia
+                    while (running && (!dirty || System.nanoTime() - firstDirtyNanos < maxDelayNanos)) {
+                        if (!dirty) {
+                            lock.wait();
+                        } else {
+                            long remaining = maxDelayNanos - (System.nanoTime() - firstDirtyNanos);
+                            lock.wait(Math.max(1, remaining / 1_000_000L), (int) (remaining % 1_000_000L));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (!running) {
+                    return; // Zaległe zmiany zapisuje stop()
+                }
+                dirty = false;
+                dirtySince = firstDirtyNanos;
+            }
+            try {
+                write(dirtySince);
+            } catch (RuntimeException e) {
+                // Błąd pojedynczego zapisu nie może zatrzymać wątku zapisującego
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Zapisuje bieżący stan i rejestruje czas od pierwszej zmiany do trwałego zapisu.
+     */
+    private void write(long dirtySince) {
+        saveFile.save(state);
+        latency.record(System.nanoTime() - dirtySince);
+        synchronized (lock) {
+            writeCount++;
+        }
+    }
+
+    /**
+     * Zwraca pomiar czasu od pierwszej niezapisanej zmiany do jej trwałego zapisu.
+     */
+    public LatencyMeter getLatency() {
+        return latency;
+    }
+
+    /**
+     * Zwraca liczbę zgłoszonych zmian.
+     */
+    public long getRequestCount() {
+        synchronized (lock) {
+            return requestCount;
+        }
+    }
+
+    /**
+     * Zwraca liczbę wykonanych zapisów na dysk (po połączeniu zgłoszeń).
+     */
+    public long getWriteCount() {
+        synchronized (lock) {
+            return writeCount;
+        }
+    }
+}
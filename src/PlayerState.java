@@ -0,0 +1,342 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Jedyny, współdzielony model stanu gracza: pieniądze, złowione ryby oraz poziomy
+ * i koszty ulepszeń. Korzystają z niego gra główna, sklep i minigra, a zmiany są
+ * rozgłaszane do słuchaczy (interfejs, zapis na dysk) - zamiast synchronizować
+ * kopie stanu przez pliki.
+ * Kilka zmian można zgrupować metodą {@link #update(Consumer)}, dzięki czemu
+ * słuchacze zostaną powiadomieni raz i nigdy nie zobaczą stanu pośredniego.
+ *
+ * <p>Operacje ekonomiczne (złowienie, sprzedaż, ulepszenia, reset ze zwrotem) są
+ * transakcjami: każda zmienia kilka wartości atomowo, dostaje kolejny numer
+ * i jest dopisywana do {@link EconomyJournal}, z którego można ją odtworzyć po awarii.
+ */
+public class PlayerState {
+
+    /**
+     * Słuchacz zmian stanu gracza. Wywoływany w wątku, który dokonał zmiany,
+     * po zwolnieniu blokady stanu.
+     */
+    public interface Listener {
+        void playerStateChanged(PlayerState state);
+    }
+
+    /** Koszt pierwszego ulepszenia haka i łodzi. */
+    public static final int BASE_UPGRADE_COST = 200;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private EconomyJournal journal;
+    private long lastSeq = 0; // Numer ostatniej wykonanej transakcji
+    private int updateDepth = 0;
+    private boolean changed = false;
+
+    private int money = 0;
+    private int fishCaught = 0;
+    private int hookUpgradeLevel = 0;
+    private int boatUpgradeLevel = 0;
+    private int hookUpgradeCost = BASE_UPGRADE_COST;
+    private int boatUpgradeCost = BASE_UPGRADE_COST;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Wykonuje grupę zmian jako jedną operację: inne wątki nie zobaczą stanu pośredniego,
+     * a słuchacze zostaną powiadomieni tylko raz, po zakończeniu wszystkich zmian.
+     * @param change Zmiany do wykonania (wywołania setterów tego obiektu).
+     */
+    public void update(Consumer<PlayerState> change) {
+        boolean notify;
+        synchronized (this) {
+            updateDepth++;
+            try {
+                change.accept(this);
+            } finally {
+                updateDepth--;
+            }
+            notify = updateDepth == 0 && changed;
+            if (notify) {
+                changed = false;
+            }
+        }
+        if (notify) {
+            fireChanged();
+        }
+    }
+
+    /**
+     * Oznacza zmianę stanu; poza {@link #update(Consumer)} powiadamia słuchaczy od razu.
+     */
+    private void markChanged() {
+        synchronized (this) {
+            changed = true;
+        }
+        notifyIfChanged();
+    }
+
+    /**
+     * Powiadamia słuchaczy o zmianach, o ile nie trwa grupa zmian {@link #update(Consumer)}.
+     * Wywoływane po zwolnieniu blokady stanu.
+     */
+    private void notifyIfChanged() {
+        boolean notify;
+        synchronized (this) {
+            notify = updateDepth == 0 && changed;
+            if (notify) {
+                changed = false;
+            }
+        }
+        if (notify) {
+            fireChanged();
+        }
+    }
+
+    // --- Transakcje ekonomiczne ---
+
+    /**
+     * Ustawia dziennik, do którego dopisywane są kolejne transakcje.
+     */
+    public synchronized void setJournal(EconomyJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Dodaje złowione ryby.
+     * @param count Liczba ryb (czerwona ryba liczy się podwójnie).
+     * @return Numer transakcji.
+     */
+    public long catchFish(int count) {
+        long seq;
+        synchronized (this) {
+            seq = commit(EconomyJournal.Type.CATCH, count, 0);
+        }
+        notifyIfChanged();
+        return seq;
+    }
+
+    /**
+     * Sprzedaje jedną rybę.
+     * @param price Cena za rybę.
+     * @return True, jeśli gracz miał rybę do sprzedania.
+     */
+    public boolean sellFish(int price) {
+        synchronized (this) {
+            if (fishCaught <= 0) {
+                return false;
+            }
+            commit(EconomyJournal.Type.SELL, 1, price);
+        }
+        notifyIfChanged();
+        return true;
+    }
+
+    /**
+     * Kupuje kolejny poziom ulepszenia haka za bieżący koszt; koszt następnego poziomu się podwaja.
+     * @param maxLevel Maksymalny poziom ulepszenia.
+     * @return True, jeśli ulepszenie zostało kupione.
+     */
+    public boolean upgradeHook(int maxLevel) {
+        synchronized (this) {
+            if (hookUpgradeLevel >= maxLevel || money < hookUpgradeCost) {
+                return false;
+            }
+            commit(EconomyJournal.Type.UPGRADE_HOOK, hookUpgradeCost, 0);
+        }
+        notifyIfChanged();
+        return true;
+    }
+
+    /**
+     * Kupuje kolejny poziom ulepszenia łodzi; działa analogicznie do {@link #upgradeHook(int)}.
+     * @param maxLevel Maksymalny poziom ulepszenia.
+     * @return True, jeśli ulepszenie zostało kupione.
+     */
+    public boolean upgradeBoat(int maxLevel) {
+        synchronized (this) {
+            if (boatUpgradeLevel >= maxLevel || money < boatUpgradeCost) {
+                return false;
+            }
+            commit(EconomyJournal.Type.UPGRADE_BOAT, boatUpgradeCost, 0);
+        }
+        notifyIfChanged();
+        return true;
+    }
+
+    /**
+     * Resetuje wszystkie ulepszenia, zwracając graczowi sumę wydanych na nie pieniędzy.
+     * @return Zwrócona kwota.
+     */
+    public int resetUpgrades() {
+        int refund;
+        synchronized (this) {
+            refund = totalCost(hookUpgradeLevel) + totalCost(boatUpgradeLevel);
+            commit(EconomyJournal.Type.REFUND, refund, 0);
+        }
+        notifyIfChanged();
+        return refund;
+    }
+
+    /**
+     * Suma kosztów wszystkich poziomów do podanego (koszt podwaja się z każdym poziomem).
+     */
+    private static int totalCost(int level) {
+        int total = 0;
+        int cost = BASE_UPGRADE_COST;
+        for (int i = 0; i < level; i++) {
+            total += cost;
+            cost *= 2;
+        }
+        return total;
+    }
+
+    /**
+     * Wykonuje transakcję, nadaje jej numer i dopisuje ją do dziennika. Wywoływane pod blokadą stanu.
+     */
+    private long commit(EconomyJournal.Type type, int a, int b) {
+        long seq = lastSeq + 1;
+        applyTransaction(seq, type, a, b);
+        if (journal != null) {
+            journal.append(seq, type, a, b);
+        }
+        return seq;
+    }
+
+    /**
+     * Nakłada skutki transakcji na stan. Używane przy wykonywaniu nowych transakcji
+     * oraz przy odtwarzaniu dziennika po starcie gry (bez ponownego dopisywania do dziennika).
+     * @param seq Numer transakcji.
+     * @param type Rodzaj transakcji.
+     * @param a Pierwszy argument transakcji.
+     * @param b Drugi argument transakcji.
+     */
+    synchronized void applyTransaction(long seq, EconomyJournal.Type type, int a, int b) {
+        switch (type) {
+            case CATCH:
+                fishCaught += a;
+                break;
+            case SELL:
+                fishCaught -= a;
+                money += a * b;
+                break;
+            case UPGRADE_HOOK:
+                money -= a;
+                hookUpgradeLevel++;
+                hookUpgradeCost = a * 2;
+                break;
+            case UPGRADE_BOAT:
+                money -= a;
+                boatUpgradeLevel++;
+                boatUpgradeCost = a * 2;
+                break;
+            case REFUND:
+                money += a;
+                hookUpgradeLevel = 0;
+                boatUpgradeLevel = 0;
+                hookUpgradeCost = BASE_UPGRADE_COST;
+                boatUpgradeCost = BASE_UPGRADE_COST;
+                break;
+        }
+        lastSeq = seq;
+        changed = true;
+    }
+
+    /**
+     * Zwraca numer ostatniej wykonanej transakcji (zapisywany w migawce stanu).
+     */
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Ustawia numer ostatniej transakcji po wczytaniu migawki.
+     */
+    synchronized void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    private void fireChanged() {
+        for (Listener listener : listeners) {
+            listener.playerStateChanged(this);
+        }
+    }
+
+    public synchronized int getMoney() {
+        return money;
+    }
+
+    public void setMoney(int money) {
+        synchronized (this) {
+            if (this.money == money) return;
+            this.money = money;
+        }
+        markChanged();
+    }
+
+    public synchronized int getFishCaught() {
+        return fishCaught;
+    }
+
+    public void setFishCaught(int fishCaught) {
+        synchronized (this) {
+            if (this.fishCaught == fishCaught) return;
+            this.fishCaught = fishCaught;
+        }
+        markChanged();
+    }
+
+    public synchronized int getHookUpgradeLevel() {
+        return hookUpgradeLevel;
+    }
+
+    public void setHookUpgradeLevel(int hookUpgradeLevel) {
+        synchronized (this) {
+            if (this.hookUpgradeLevel == hookUpgradeLevel) return;
+            this.hookUpgradeLevel = hookUpgradeLevel;
+        }
+        markChanged();
+    }
+
+    public synchronized int getBoatUpgradeLevel() {
+        return boatUpgradeLevel;
+    }
+
+    public void setBoatUpgradeLevel(int boatUpgradeLevel) {
+        synchronized (this) {
+            if (this.boatUpgradeLevel == boatUpgradeLevel) return;
+            this.boatUpgradeLevel = boatUpgradeLevel;
+        }
+        markChanged();
+    }
+
+    public synchronized int getHookUpgradeCost() {
+        return hookUpgradeCost;
+    }
+
+    public void setHookUpgradeCost(int hookUpgradeCost) {
+        synchronized (this) {
+            if (this.hookUpgradeCost == hookUpgradeCost) return;
+            this.hookUpgradeCost = hookUpgradeCost;
+        }
+        markChanged();
+    }
+
+    public synchronized int getBoatUpgradeCost() {
+        return boatUpgradeCost;
+    }
+
+    public void setBoatUpgradeCost(int boatUpgradeCost) {
+        synchronized (this) {
+            if (this.boatUpgradeCost == boatUpgradeCost) return;
+            this.boatUpgradeCost = boatUpgradeCost;
+        }
+        markChanged();
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.SplittableRandom;
+
+/**
+ * Centralne źródło liczb losowych gry, wyznaczone jednym ziarnem. Każdy podsystem
+ * (odradzanie ryb, minigra, chmury) i każdy byt (np. porcja ławicy) otrzymuje
+ * własny, niesynchronizowany generator {@link SplittableRandom}. Generator jest wyprowadzany
+ * z ziarna i nazwy strumienia, a nie z kolejności tworzenia, więc dodanie nowego podsystemu
+ * nie zmienia liczb losowanych przez pozostałe, a cały przebieg gry nadal odtwarza się
+ * z jednego ziarna.
+ *
+ * <p>Generatory nie są bezpieczne wątkowo: każdy powinien być używany przez jeden wątek naraz,
+ * za to - w przeciwieństwie do {@link java.util.Random} - nie płacą za atomową aktualizację
+ * stanu przy każdym losowaniu.
+ */
+public class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    /**
+     * Tworzy źródło strumieni.
+     * @param seed Ziarno całej gry.
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Zwraca nowy generator podsystemu. Ta sama nazwa daje zawsze ten sam ciąg liczb.
+     * @param subsystem Nazwa podsystemu, np. "world.spawn".
+     */
+    public SplittableRandom forSubsystem(String subsystem) {
+        return new SplittableRandom(mix(seed, subsystem.hashCode()));
+    }
+
+    /**
+     * Zwraca nowy generator pojedynczego bytu podsystemu.
+     * @param subsystem Nazwa podsystemu, np. "fish2".
+     * @param id Numer bytu w podsystemie.
+     */
+    public SplittableRandom forEntity(String subsystem, int id) {
+        return new SplittableRandom(mix(mix(seed, subsystem.hashCode()), id));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Łączy ziarno z kluczem strumienia funkcją mieszającą SplitMix64,
+     * tak aby sąsiednie klucze dawały niepowiązane ziarna.
+     */
+    private static long mix(long seed, long key) {
+        long z = seed + (key + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,197 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binarny plik zapisu stanu gracza, zastępujący sześć osobnych plików tekstowych.
+ * Rekord ma stały układ (wszystkie liczby w kolejności big-endian):
+ * <pre>
+ * 0  int magic          "FISH"
+ * 4  int version        wersja formatu
+ * 8  int money
+ * 12 int fishCaught
+ * 16 int hookUpgradeLevel
+ * 20 int boatUpgradeLevel
+ * 24 int hookUpgradeCost
+ * 28 int boatUpgradeCost
+ * 32 long lastSeq       numer ostatniej transakcji z {@link EconomyJournal} zawartej w migawce
+ * 40 int crc            CRC32 bajtów 0-39
+ * </pre>
+ * Pliki w wersji 1 (bez numeru transakcji, suma kontrolna na pozycji 32) są nadal wczytywane.
+ * Odczyt to jedno wywołanie {@code FileChannel.read}, a zapis trafia najpierw do pliku
+ * tymczasowego, który po wymuszeniu zapisu na dysk jest atomowo przemianowywany
+ * na plik docelowy - przerwany zapis nigdy nie zostawia uszkodzonego stanu.
+ * Przy pierwszym uruchomieniu stan jest przenoszony ze starych plików tekstowych.
+ * Sam stan przechowuje {@link PlayerState}; ta klasa odpowiada wyłącznie za jego format na dysku.
+ */
+public class SaveFile {
+    private static final int MAGIC = 0x46495348; // "FISH"
+    private static final int VERSION = 2;
+    /** Rozmiar rekordu w bajtach. */
+    public static final int RECORD_SIZE = 44;
+    /** Rozmiar rekordu w wersji 1 formatu. */
+    private static final int RECORD_SIZE_V1 = 36;
+
+    private final Path path;
+    private final Path tempPath;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    // Chroni bufor i plik podczas operacji dyskowych. Stan gracza jest blokowany tylko na czas
+    // skopiowania go do bufora, więc odczyty i zmiany stanu nie czekają na zapis na dysk.
+    private final Object ioLock = new Object();
+
+    /**
+     * Tworzy plik zapisu. Stan nie jest wczytywany, dopóki nie zostanie wywołana metoda {@link #load(PlayerState)}.
+     * @param path Ścieżka pliku zapisu.
+     */
+    public SaveFile(Path path) {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * Wczytuje stan z pliku zapisu. Jeśli plik nie istnieje, stan jest przenoszony
+     * ze starych plików tekstowych (o ile istnieją) i od razu zapisywany w nowym formacie.
+     * Uszkodzony plik jest zgłaszany, a stan pozostaje domyślny.
+     * @param state Stan gracza, do którego trafiają wczytane wartości.
+     */
+    public void load(PlayerState state) {
+        if (!Files.exists(path)) {
+            if (migrateTextFiles(state)) {
+                save(state);
+            }
+            return;
+        }
+        synchronized (ioLock) {
+            read(state);
+        }
+    }
+
+    /**
+     * Wczytuje i sprawdza rekord z pliku. Wywoływane z zajętą blokadą operacji dyskowych.
+     */
+    private void read(PlayerState state) {
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Rekord ma zaledwie kilkadziesiąt bajtów, zwykle wystarcza jeden odczyt
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        buffer.flip();
+        if (buffer.remaining() < RECORD_SIZE_V1 || buffer.getInt(0) != MAGIC) {
+            System.err.println("Plik zapisu " + path + " jest uszkodzony - użyto stanu domyślnego.");
+            return;
+        }
+        int version = buffer.getInt(4);
+        int size = version == 1 ? RECORD_SIZE_V1 : RECORD_SIZE;
+        if (version != 1 && version != VERSION) {
+            System.err.println("Nieobsługiwana wersja pliku zapisu: " + version);
+            return;
+        }
+        if (buffer.remaining() < size || buffer.getInt(size - 4) != checksum(size)) {
+            System.err.println("Niepoprawna suma kontrolna pliku zapisu " + path + " - użyto stanu domyślnego.");
+            return;
+        }
+        state.update(s -> {
+            s.setMoney(buffer.getInt(8));
+            s.setFishCaught(buffer.getInt(12));
+            s.setHookUpgradeLevel(buffer.getInt(16));
+            s.setBoatUpgradeLevel(buffer.getInt(20));
+            s.setHookUpgradeCost(buffer.getInt(24));
+            s.setBoatUpgradeCost(buffer.getInt(28));
+        });
+        state.setLastSeq(version == 1 ? 0 : buffer.getLong(32));
+    }
+
+    /**
+     * Zapisuje cały stan jednym rekordem: plik tymczasowy, wymuszenie zapisu na dysk
+     * i atomowe przemianowanie na plik docelowy.
+     * @param state Stan gracza do zapisania; kopiowany atomowo, więc zapis nigdy nie zawiera stanu pośredniego.
+     */
+    public void save(PlayerState state) {
+        synchronized (ioLock) {
+            synchronized (state) {
+                buffer.clear();
+                buffer.putInt(MAGIC).putInt(VERSION)
+                        .putInt(state.getMoney()).putInt(state.getFishCaught())
+                        .putInt(state.getHookUpgradeLevel()).putInt(state.getBoatUpgradeLevel())
+                        .putInt(state.getHookUpgradeCost()).putInt(state.getBoatUpgradeCost())
+                        .putLong(state.getLastSeq());
+            }
+            buffer.putInt(checksum(RECORD_SIZE));
+            buffer.flip();
+            write();
+        }
+    }
+
+    /**
+     * Zapisuje przygotowany bufor przez plik tymczasowy. Wywoływane z zajętą blokadą operacji dyskowych.
+     */
+    private void write() {
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                // System plików bez atomowego przemianowania - zwykłe zastąpienie pliku
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Liczy sumę kontrolną rekordu o podanym rozmiarze (bez ostatnich 4 bajtów, w których jest zapisana).
+     */
+    private int checksum(int recordSize) {
+        crc.reset();
+        for (int i = 0; i < recordSize - 4; i++) {
+            crc.update(buffer.get(i));
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Przenosi stan ze starych plików tekstowych leżących obok pliku zapisu.
+     * @return True, jeśli istniał choć jeden stary plik.
+     */
+    private boolean migrateTextFiles(PlayerState state) {
+        File dir = path.toAbsolutePath().getParent().toFile();
+        File moneyFile = new File(dir, "money.txt");
+        File fishFile = new File(dir, "fish_caught.txt");
+        File hookUpgradeFile = new File(dir, "hook_upgrade.txt");
+        File boatUpgradeFile = new File(dir, "boat_upgrade.txt");
+        File hookUpgradeCostFile = new File(dir, "hook_upgrade_cost.txt");
+        File boatUpgradeCostFile = new File(dir, "boat_upgrade_cost.txt");
+        if (!moneyFile.exists() && !fishFile.exists() && !hookUpgradeFile.exists() && !boatUpgradeFile.exists()
+                && !hookUpgradeCostFile.exists() && !boatUpgradeCostFile.exists()) {
+            return false;
+        }
+        state.update(s -> {
+            s.setMoney(GameFiles.readInt(moneyFile, 0));
+            s.setFishCaught(GameFiles.readInt(fishFile, 0));
+            s.setHookUpgradeLevel(GameFiles.readInt(hookUpgradeFile, 0));
+            s.setBoatUpgradeLevel(GameFiles.readInt(boatUpgradeFile, 0));
+            s.setHookUpgradeCost(GameFiles.readInt(hookUpgradeCostFile, PlayerState.BASE_UPGRADE_COST));
+            s.setBoatUpgradeCost(GameFiles.readInt(boatUpgradeCostFile, PlayerState.BASE_UPGRADE_COST));
+        });
+        return true;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
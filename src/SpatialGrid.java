@@ -0,0 +1,185 @@
+import java.util.Arrays;
+
+/**
+ * Jednorodna siatka przestrzenna (spatial hash) przyspieszająca wykrywanie kolizji.
+ * Świat jest podzielony na kwadratowe komórki, a każdy obiekt jest zapisany w komórce,
+ * w której leży jego lewy górny róg. Komórki przechowują listy dwukierunkowe
+ * zbudowane na tablicach prymitywnych, dzięki czemu wstawienie, usunięcie
+ * i przeniesienie obiektu do innej komórki kosztują O(1), a zapytanie o prostokąt
+ * przegląda tylko komórki, które ten prostokąt pokrywa.
+ */
+public class SpatialGrid {
+    private static final int NONE = -1;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellHead; // Pierwszy obiekt w każdej komórce lub NONE
+
+    // Dane poszczególnych obiektów, indeksowane ich identyfikatorem
+    private int[] cellOf;
+    private int[] next;
+    private int[] prev;
+
+    private int[] queryResult = new int[64];
+
+    /**
+     * Tworzy siatkę pokrywającą świat o podanych wymiarach.
+     * @param worldWidth Szerokość świata w pikselach.
+     * @param worldHeight Wysokość świata w pikselach.
+     * @param cellSize Bok komórki w pikselach; powinien być nie mniejszy niż typowy obiekt.
+     * @param initialCapacity Początkowa liczba obiektów; siatka rośnie automatycznie.
+     */
+    public SpatialGrid(int worldWidth, int worldHeight, int cellSize, int initialCapacity) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+        this.cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, NONE);
+        int capacity = Math.max(1, initialCapacity);
+        cellOf = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(cellOf, NONE);
+    }
+
+    /**
+     * Dodaje obiekt do siatki.
+     * @param id Identyfikator obiektu (np. indeks w puli ryb).
+     * @param x Pozycja pozioma lewego górnego rogu obiektu.
+     * @param y Pozycja pionowa lewego górnego rogu obiektu.
+     */
+    public void insert(int id, int x, int y) {
+        ensureCapacity(id + 1);
+        link(id, cellAt(x, y));
+    }
+
+    /**
+     * Aktualizuje pozycję obiektu; przepina go tylko wtedy, gdy zmienił komórkę.
+     * @param id Identyfikator obiektu.
+     * @param x Nowa pozycja pozioma.
+     * @param y Nowa pozycja pionowa.
+     */
+    public void update(int id, int x, int y) {
+        int cell = cellAt(x, y);
+        if (cell != cellOf[id]) {
+            unlink(id);
+            link(id, cell);
+        }
+    }
+
+    /**
+     * Usuwa obiekt z siatki.
+     * @param id Identyfikator obiektu.
+     */
+    public void remove(int id) {
+        unlink(id);
+    }
+
+    /**
+     * Nadaje obiektowi nowy identyfikator, zachowując jego komórkę.
+     * Używane, gdy pula przenosi obiekt pod inny indeks (swap-remove).
+     * @param from Dotychczasowy identyfikator.
+     * @param to Nowy identyfikator (musi być wolny).
+     */
+    public void relocate(int from, int to) {
+        int cell = cellOf[from];
+        unlink(from);
+        link(to, cell);
+    }
+
+    /**
+     * Usuwa wszystkie obiekty z siatki.
+     */
+    public void clear() {
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(cellOf, NONE);
+    }
+
+    /**
+     * Zbiera obiekty z komórek pokrywanych przez prostokąt.
+     * Wynik jest zbiorem kandydatów - wywołujący musi jeszcze sprawdzić dokładną kolizję.
+     * Obiekty zapisywane są według lewego górnego rogu, więc prostokąt zapytania
+     * należy wcześniej poszerzyć w lewo i w górę o rozmiar największego obiektu.
+     * @param minX Lewa krawędź prostokąta.
+     * @param minY Górna krawędź prostokąta.
+     * @param maxX Prawa krawędź prostokąta.
+     * @param maxY Dolna krawędź prostokąta.
+     * @return Liczba kandydatów zapisanych w tablicy {@link #getQueryResult()}.
+     */
+    public int query(int minX, int minY, int maxX, int maxY) {
+        int minColumn = clamp(Math.floorDiv(minX, cellSize), columns);
+        int maxColumn = clamp(Math.floorDiv(maxX, cellSize), columns);
+        int minRow = clamp(Math.floorDiv(minY, cellSize), rows);
+        int maxRow = clamp(Math.floorDiv(maxY, cellSize), rows);
+
+        int count = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int id = cellHead[row * columns + column]; id != NONE; id = next[id]) {
+                    if (count == queryResult.length) {
+                        queryResult = Arrays.copyOf(queryResult, count * 2);
+                    }
+                    queryResult[count++] = id;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Zwraca tablicę z wynikiem ostatniego zapytania (ważne są pierwsze elementy
+     * w liczbie zwróconej przez {@link #query(int, int, int, int)}).
+     */
+    public int[] getQueryResult() {
+        return queryResult;
+    }
+
+    private int cellAt(int x, int y) {
+        int column = clamp(Math.floorDiv(x, cellSize), columns);
+        int row = clamp(Math.floorDiv(y, cellSize), rows);
+        return row * columns + column;
+    }
+
+    private static int clamp(int value, int count) {
+        return Math.max(0, Math.min(count - 1, value));
+    }
+
+    private void link(int id, int cell) {
+        int head = cellHead[cell];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        cellHead[cell] = id;
+        cellOf[id] = cell;
+    }
+
+    private void unlink(int id) {
+        int cell = cellOf[id];
+        if (cell == NONE) {
+            return;
+        }
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            cellHead[cell] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        cellOf[id] = NONE;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > cellOf.length) {
+            int newCapacity = Math.max(capacity, cellOf.length * 2);
+            int oldCapacity = cellOf.length;
+            cellOf = Arrays.copyOf(cellOf, newCapacity);
+            next = Arrays.copyOf(next, newCapacity);
+            prev = Arrays.copyOf(prev, newCapacity);
+            Arrays.fill(cellOf, oldCapacity, newCapacity, NONE);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Zestaw poleceń gracza przekazywany do symulacji w pojedynczym kroku (ticku).
+ * Obiekt jest wielokrotnego użytku - warstwa interfejsu wypełnia go przed każdym
+ * krokiem na podstawie stanu klawiatury ({@link InputState}).
+ */
+public class TickInput {
+    private boolean left;
+    private boolean right;
+    private boolean toggleHook;
+    private boolean enterShop;
+
+    /**
+     * Ustawia wszystkie polecenia naraz.
+     * @param left Czy łódź ma przyspieszyć w lewo.
+     * @param right Czy łódź ma przyspieszyć w prawo.
+     * @param toggleHook Czy hak ma zostać opuszczony lub zwinięty.
+     * @param enterShop Czy gracz próbuje wejść do sklepu.
+     */
+    public void set(boolean left, boolean right, boolean toggleHook, boolean enterShop) {
+        this.left = left;
+        this.right = right;
+        this.toggleHook = toggleHook;
+        this.enterShop = enterShop;
+    }
+
+    // Gettery
+    public boolean isLeft() { return left; }
+    public boolean isRight() { return right; }
+    public boolean isToggleHook() { return toggleHook; }
+    public boolean isEnterShop() { return enterShop; }
+}
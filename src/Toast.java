@@ -0,0 +1,74 @@
+import java.awt.*;
+
+/**
+ * Krótki komunikat dla gracza rysowany jako nakładka na powierzchni gry.
+ * Zastępuje osobne okna komunikatów: pokazanie wiadomości to tylko podmiana tekstu
+ * i licznika kroków, bez tworzenia okna i przejmowania fokusu.
+ * Czas wyświetlania jest liczony w krokach symulacji.
+ */
+public class Toast {
+    /** Szerokość ramki komunikatu. */
+    public static final int WIDTH = 360;
+    /** Wysokość ramki komunikatu. */
+    public static final int HEIGHT = 60;
+
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.BOLD, 16);
+    private static final Color PANEL_COLOR = new Color(0, 0, 0, 180);
+
+    private String message = "";
+    private int remainingTicks = 0;
+
+    /**
+     * Pokazuje komunikat, zastępując poprzedni.
+     * @param message Wiadomość do wyświetlenia.
+     * @param durationTicks Liczba kroków symulacji, przez które komunikat jest widoczny.
+     */
+    public void show(String message, int durationTicks) {
+        this.message = message;
+        this.remainingTicks = durationTicks;
+    }
+
+    /**
+     * Odlicza jeden krok czasu wyświetlania.
+     * @return True, jeśli komunikat jest nadal widoczny.
+     */
+    public boolean tick() {
+        if (remainingTicks > 0) {
+            remainingTicks--;
+        }
+        return remainingTicks > 0;
+    }
+
+    /**
+     * Ukrywa komunikat od razu (np. po naciśnięciu klawisza).
+     */
+    public void dismiss() {
+        remainingTicks = 0;
+    }
+
+    public boolean isVisible() {
+        return remainingTicks > 0;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Rysuje komunikat wyśrodkowany w ramce.
+     * @param g Kontekst graficzny klatki.
+     * @param x Lewa krawędź ramki.
+     * @param y Górna krawędź ramki.
+     */
+    public void draw(Graphics2D g, int x, int y) {
+        g.setColor(PANEL_COLOR);
+        g.fillRect(x, y, WIDTH, HEIGHT);
+        g.setColor(Color.YELLOW);
+        g.drawRect(x, y, WIDTH - 1, HEIGHT - 1);
+        g.setFont(TEXT_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(Color.WHITE);
+        g.drawString(message, x + (WIDTH - metrics.stringWidth(message)) / 2,
+                y + (HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+}
@@ -0,0 +1,264 @@
+import java.awt.Rectangle;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bezgłowy silnik symulacji świata gry, niezależny od Swinga.
+ * Przechowuje łódź, hak, ryby wszystkich gatunków ({@link FishSpecies}) we wspólnej puli
+ * {@link FishPool} oraz obszar sklepu i przesuwa cały świat o jeden krok w metodzie {@link #tick(TickInput)}.
+ * Wszystkie losowania pochodzą ze strumieni {@link RandomStreams} wyprowadzonych z ziarna
+ * (osobne dla odradzania ryb i każdej porcji ławicy, zob. {@link FishMover}),
+ * dzięki czemu ten sam ciąg poleceń daje zawsze ten sam przebieg gry - niezależnie od liczby rdzeni.
+ */
+public class World {
+
+    /**
+     * Wynik pojedynczego kroku symulacji, na który musi zareagować warstwa interfejsu.
+     */
+    public enum TickResult {
+        /** Nic szczególnego się nie wydarzyło. */
+        NONE,
+        /** Hak złapał rybę zwykłego gatunku - należy uruchomić minigrę. */
+        CAUGHT_FISH,
+        /** Hak złapał rybę specjalnego gatunku (np. czerwoną) - należy uruchomić trudniejszą minigrę. */
+        CAUGHT_RED_FISH,
+        /** Łódź stoi przy sklepie, a gracz chce do niego wejść. */
+        ENTER_SHOP
+    }
+
+    /** Liczba kroków między kolejnymi odrodzeniami ryb (około 3 sekund przy kroku 30 ms). */
+    public static final int RESPAWN_INTERVAL_TICKS = 100;
+
+    private final int width;
+    private final int height;
+    private final int waterLevel;
+    private final long seed;
+    private final RandomStreams randomStreams; // Źródło wszystkich generatorów świata
+    private final SplittableRandom spawnRandom; // Pozycje i kierunki odradzanych ryb
+    private final Boat boat;
+
+    private final FishPool fish; // Ryby wszystkich gatunków
+    private final SpatialGrid fishGrid; // Indeks przestrzenny ryb
+    private final FishMover fishMover; // Ruch ryb, równoległy dla dużych ławic
+
+    private final int shopWidth = 150;
+    private final int shopHeight = 100;
+    private final Rectangle shopArea;
+
+    private int hookFloor;
+    private int respawnCountdown = RESPAWN_INTERVAL_TICKS;
+    private long tickCount = 0;
+
+    /**
+     * Tworzy nowy świat gry z domyślną liczbą pięciu zwykłych ryb i dwiema czerwonymi.
+     * @param width Szerokość świata w pikselach.
+     * @param height Wysokość świata w pikselach.
+     * @param seed Ziarno generatora liczb losowych, określające cały przebieg symulacji.
+     */
+    public World(int width, int height, long seed) {
+        this(width, height, seed, 5);
+    }
+
+    /**
+     * Tworzy nowy świat gry z dwiema czerwonymi rybami.
+     * @param width Szerokość świata w pikselach.
+     * @param height Wysokość świata w pikselach.
+     * @param seed Ziarno generatora liczb losowych, określające cały przebieg symulacji.
+     * @param fishTarget Liczba zwykłych ryb utrzymywana w świecie (złapane są odradzane).
+     */
+    public World(int width, int height, long seed, int fishTarget) {
+        this(width, height, seed, FishSpecies.ORANGE.withPopulation(fishTarget), FishSpecies.RED);
+    }
+
+    /**
+     * Tworzy nowy świat gry z podanymi gatunkami ryb.
+     * @param width Szerokość świata w pikselach.
+     * @param height Wysokość świata w pikselach.
+     * @param seed Ziarno generatora liczb losowych, określające cały przebieg symulacji.
+     * @param species Gatunki ryb wraz z liczebnością utrzymywaną w świecie (złapane ryby są odradzane).
+     */
+    public World(int width, int height, long seed, FishSpecies... species) {
+        this.width = width;
+        this.height = height;
+        this.waterLevel = height / 2;
+        this.seed = seed;
+        this.randomStreams = new RandomStreams(seed);
+        this.spawnRandom = randomStreams.forSubsystem("world.spawn");
+        this.hookFloor = height;
+        int population = 0;
+        for (FishSpecies s : species) {
+            population += s.getPopulation();
+        }
+        this.fish = new FishPool(species, population);
+        this.fishGrid = new SpatialGrid(width, height, 64, population);
+        this.fishMover = new FishMover(fish, randomStreams, ForkJoinPool.commonPool());
+
+        boat = new Boat(width, waterLevel);
+        // Niższa prędkość bazowa łodzi zapewnia lepszą kontrolę
+        boat.setSpeedMultiplier(0.75);
+
+        shopArea = new Rectangle(0, waterLevel - shopHeight, shopWidth, shopHeight);
+
+        spawnFish();
+    }
+
+    /**
+     * Uzupełnia każdy gatunek do jego liczebności, nadając nowym rybom losowe pozycje
+     * i kierunki. Każda brakująca ryba trafia na pierwsze wolne miejsce puli.
+     */
+    private void spawnFish() {
+        int minFishY = waterLevel + 50; // Ryby pojawiają się poniżej powierzchni wody
+        for (int s = 0; s < fish.getSpeciesCount(); s++) {
+            FishSpecies species = fish.getSpeciesInfo(s);
+            while (fish.countOf(s) < species.getPopulation()) {
+                int x = spawnRandom.nextInt(width - species.getWidth());
+                int y = spawnRandom.nextInt(height - minFishY - species.getHeight()) + minFishY;
+                int speed = spawnRandom.nextBoolean() ? species.getSpeed() : -species.getSpeed();
+                int i = fish.add(s, x, y, speed);
+                fishGrid.insert(i, x, y);
+            }
+        }
+    }
+
+    /**
+     * Wykonuje jeden krok symulacji: stosuje polecenia gracza, przesuwa łódź, hak
+     * i ryby, wykrywa kolizje haka z rybami oraz próbę wejścia do sklepu.
+     * @param input Polecenia gracza zebrane od poprzedniego kroku.
+     * @return Zdarzenie, na które powinna zareagować warstwa interfejsu.
+     */
+    public TickResult tick(TickInput input) {
+        tickCount++;
+        boat.savePreviousState();
+
+        if (input.isLeft()) {
+            boat.moveLeft();
+        } else if (input.isRight()) {
+            boat.moveRight();
+        }
+        if (input.isToggleHook()) {
+            if (boat.isHookDropped()) {
+                boat.resetHook(); // Zwinięcie haka, jeśli jest już opuszczony
+            } else {
+                boat.dropHook();
+            }
+        }
+
+        if (--respawnCountdown <= 0) {
+            spawnFish();
+            respawnCountdown = RESPAWN_INTERVAL_TICKS;
+        }
+
+        int previousHookY = boat.getHookY();
+        boat.updateHook(hookFloor);
+
+        // Hitbox haka (4x10 px) jako prymitywny AABB - krok symulacji nie alokuje pamięci
+        int hookX = boat.getHookX() - 2;
+        int hookY = boat.getHookY();
+        int hookWidth = 4;
+        int hookHeight = 10;
+
+        // Kolizja haka z rybami - kandydatami są tylko ryby z komórek siatki pokrytych przez drogę,
+        // jaką hak przebył w tym kroku, poszerzoną o największą rybę; złowiona jest jednak
+        // tylko ryba nachodząca na bieżący hitbox haka
+        int sweptTop = Math.min(previousHookY, hookY);
+        int sweptBottom = hookY + hookHeight;
+        int candidates = fishGrid.query(hookX - fish.getMaxWidth(), sweptTop - fish.getMaxHeight(),
+                hookX + hookWidth, sweptBottom);
+        int[] candidateIds = fishGrid.getQueryResult();
+        for (int c = 0; c < candidates; c++) {
+            int i = candidateIds[c];
+            if (intersects(hookX, hookY, hookWidth, hookHeight,
+                    fish.getX(i), fish.getY(i), fish.getWidth(i), fish.getHeight(i))) {
+                boolean special = fish.getSpeciesInfo(fish.getSpecies(i)).isSpecial();
+                removeFish(i);
+                return special ? TickResult.CAUGHT_RED_FISH : TickResult.CAUGHT_FISH;
+            }
+        }
+
+        // Ruch ryb i odbijanie od krawędzi świata - duże ławice są przesuwane równolegle,
+        // a siatka jest potem aktualizowana sekwencyjnie
+        int fishCount = fish.size();
+        fishMover.move(fishCount, width);
+        for (int i = 0; i < fishCount; i++) {
+            fishGrid.update(i, fish.getX(i), fish.getY(i));
+        }
+
+        if (input.isEnterShop() && intersects(shopArea.x, shopArea.y, shopArea.width, shopArea.height,
+                boat.getBoatX(), boat.getBoatY(), boat.getBoatWidth(), boat.getBoatHeight())) {
+            return TickResult.ENTER_SHOP;
+        }
+        return TickResult.NONE;
+    }
+
+    /**
+     * Sprawdza, czy dwa prostokąty (AABB) na siebie nachodzą - odpowiednik
+     * {@link Rectangle#intersects(Rectangle)} bez tworzenia obiektów.
+     */
+    private static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+
+    /**
+     * Usuwa złapaną rybę z puli i z siatki, aktualizując identyfikator ryby
+     * przeniesionej na jej miejsce.
+     * @param i Indeks złapanej ryby.
+     */
+    private void removeFish(int i) {
+        fishGrid.remove(i);
+        int moved = fish.remove(i);
+        if (moved != i) {
+            fishGrid.relocate(moved, i);
+        }
+    }
+
+    /**
+     * Zbiera ryby, których lewy górny róg leży w komórkach siatki pokrywanych przez prostokąt,
+     * np. widok kamery poszerzony w lewo i w górę o rozmiar największej ryby. Pozwala rysować tylko widoczne ryby,
+     * niezależnie od wielkości świata. Wynik korzysta z tego samego bufora co wykrywanie kolizji
+     * w {@link #tick(TickInput)}, więc zapytanie nie może biec równolegle z krokiem symulacji.
+     * @return Liczba indeksów ryb zapisanych w tablicy {@link #getFishQueryResult()}.
+     */
+    public int queryFish(int minX, int minY, int maxX, int maxY) {
+        return fishGrid.query(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Zwraca indeksy ryb znalezionych przez ostatnie wywołanie {@link #queryFish(int, int, int, int)}.
+     */
+    public int[] getFishQueryResult() {
+        return fishGrid.getQueryResult();
+    }
+
+    /**
+     * Rozpoczyna od nowa odliczanie do kolejnego odrodzenia ryb (np. po wznowieniu gry).
+     */
+    public void restartRespawnTimer() {
+        respawnCountdown = RESPAWN_INTERVAL_TICKS;
+    }
+
+    /**
+     * Ustawia maksymalną głębokość, na jaką może opaść hak (zwykle wysokość widocznego panelu).
+     * @param hookFloor Współrzędna Y dna dla haka.
+     */
+    public void setHookFloor(int hookFloor) {
+        this.hookFloor = hookFloor;
+    }
+
+    /**
+     * Odsuwa łódź od sklepu, aby gracz nie wszedł do niego ponownie od razu po wyjściu.
+     */
+    public void moveBoatAwayFromShop() {
+        boat.setBoatX(shopArea.width + 5);
+    }
+
+    // Gettery do odczytu stanu świata przez warstwę renderującą
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getWaterLevel() { return waterLevel; }
+    public long getSeed() { return seed; }
+    public RandomStreams getRandomStreams() { return randomStreams; }
+    public long getTickCount() { return tickCount; }
+    public Boat getBoat() { return boat; }
+    public Rectangle getShopArea() { return shopArea; }
+    public FishPool getFish() { return fish; }
+}